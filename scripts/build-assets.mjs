@@ -0,0 +1,148 @@
+// Post-processes the static assets Maven copied to target/classes/static:
+//  - images: resized copies in AVIF, WebP and JPEG (doggy.jpg -> doggy-960.avif, doggy-1920.webp, ...)
+//  - stylesheets: every "background-image: url(<source image>);" that got resized copies is followed by an
+//    image-set() of them. Only added here, so a build without this script keeps the plain source image
+//  - stylesheets: url(...) references get the content hash of the file they point at, the same
+//    name-<md5>.ext form Spring's VersionResourceResolver serves (see StaticAssetsConfig). Spring's
+//    CssLinkResourceTransformer does this at runtime too, but not for the .br / .gz variants below, and
+//    doing it here also changes the stylesheet's own hash whenever an image it uses changes
+//  - text assets: .br and .gz variants next to each file, served by Spring's EncodedResourceResolver,
+//    written last so they match the rewritten stylesheets
+//
+// Usage: node scripts/build-assets.mjs <static directory>
+import {createHash} from 'node:crypto';
+import {access, readdir, readFile, writeFile} from 'node:fs/promises';
+import {dirname, extname, join} from 'node:path';
+import {brotliCompressSync, constants, gzipSync} from 'node:zlib';
+import sharp from 'sharp';
+
+const IMAGE_WIDTHS = [960, 1920];
+// Width of the copies offered in image-set(); the backgrounds cover the whole viewport
+const IMAGE_SET_WIDTH = 1920;
+const IMAGE_FORMATS = {
+    avif: image => image.avif({quality: 50}),
+    webp: image => image.webp({quality: 72}),
+    jpg: image => image.jpeg({quality: 78, mozjpeg: true})
+};
+const SOURCE_IMAGES = new Set(['.jpg', '.jpeg', '.png']);
+const COMPRESSIBLE = new Set(['.css', '.js', '.svg', '.html', '.json']);
+
+// Files produced by an earlier run are skipped, so the script can run again on the same directory
+const GENERATED = /-\d+\.(avif|webp|jpg)$/;
+const VERSIONED = /-[0-9a-f]{32}\.\w+$/;
+// A background-image declaration alone on its line, pointing at one relative url
+const BACKGROUND_IMAGE = /^([ \t]*)background-image:\s*url\(\s*(['"]?)([^'")?#:]+)\2\s*\);[ \t]*$/gm;
+// Relative url(...) references; absolute, external and data: URLs are left alone
+const CSS_URL = /url\(\s*(['"]?)(?![a-z]+:|\/)([^'")?#]+)([^'")]*)\1\s*\)/gi;
+
+async function* files(directory) {
+    for (const entry of await readdir(directory, {withFileTypes: true})) {
+        const path = join(directory, entry.name);
+        if (entry.isDirectory()) {
+            yield* files(path);
+        } else {
+            yield path;
+        }
+    }
+}
+
+async function resize(path) {
+    const base = path.slice(0, -extname(path).length);
+    const results = [];
+    for (const width of IMAGE_WIDTHS) {
+        for (const [format, encode] of Object.entries(IMAGE_FORMATS)) {
+            const target = `${base}-${width}.${format}`;
+            const info = await encode(sharp(path).resize({width, withoutEnlargement: true})).toFile(target);
+            results.push(`${target} (${info.size} bytes)`);
+        }
+    }
+    return results;
+}
+
+async function exists(path) {
+    try {
+        await access(path);
+        return true;
+    } catch {
+        return false;
+    }
+}
+
+async function addImageSets(path) {
+    const css = await readFile(path, 'utf8');
+    const replacements = [];
+    for (const match of css.matchAll(BACKGROUND_IMAGE)) {
+        const [declaration, indent, quote, link] = match;
+        const extension = extname(link);
+        const base = link.slice(0, -extension.length);
+        const variant = format => `${base}-${IMAGE_SET_WIDTH}.${format}`;
+        if (!SOURCE_IMAGES.has(extension.toLowerCase()) || GENERATED.test(link) || VERSIONED.test(link)
+            || css.includes(variant('avif')) || !await exists(join(dirname(path), variant('avif')))) {
+            continue;
+        }
+        const candidates = [['avif', 'image/avif'], ['webp', 'image/webp'], ['jpg', 'image/jpeg']]
+            .map(([format, type]) => `${indent}        url(${quote}${variant(format)}${quote}) type('${type}')`);
+        replacements.push([declaration,
+            `${declaration}\n${indent}background-image: image-set(\n${candidates.join(',\n')});`]);
+    }
+    if (replacements.length === 0) {
+        return [];
+    }
+    await writeFile(path, replacements.reduce((text, [from, to]) => text.replace(from, to), css));
+    return [`${path}: added ${replacements.length} image sets`];
+}
+
+async function versionLinks(path) {
+    const css = await readFile(path, 'utf8');
+    const versioned = new Map();
+    for (const [, , link] of css.matchAll(CSS_URL)) {
+        const target = join(dirname(path), link);
+        if (!VERSIONED.test(link) && !versioned.has(link) && await exists(target)) {
+            const hash = createHash('md5').update(await readFile(target)).digest('hex');
+            const extension = extname(link);
+            versioned.set(link, `${link.slice(0, -extension.length)}-${hash}${extension}`);
+        }
+    }
+    if (versioned.size === 0) {
+        return [];
+    }
+    await writeFile(path, css.replace(CSS_URL, (match, quote, link, suffix) =>
+        versioned.has(link) ? `url(${quote}${versioned.get(link)}${suffix}${quote})` : match));
+    return [`${path}: versioned ${versioned.size} links`];
+}
+
+async function compress(path) {
+    const content = await readFile(path);
+    const brotli = brotliCompressSync(content, {
+        params: {
+            [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+            [constants.BROTLI_PARAM_SIZE_HINT]: content.length
+        }
+    });
+    const gzip = gzipSync(content, {level: constants.Z_BEST_COMPRESSION});
+    await writeFile(`${path}.br`, brotli);
+    await writeFile(`${path}.gz`, gzip);
+    return [`${path} ${content.length} -> br ${brotli.length}, gz ${gzip.length} bytes`];
+}
+
+const root = process.argv[2];
+if (!root) {
+    console.error('Usage: node scripts/build-assets.mjs <static directory>');
+    process.exit(1);
+}
+
+// One pass per step, since each step reads what the one before it wrote
+const steps = [
+    (path, extension) => SOURCE_IMAGES.has(extension) && !GENERATED.test(path) ? resize(path) : null,
+    (path, extension) => extension === '.css' ? addImageSets(path) : null,
+    (path, extension) => extension === '.css' ? versionLinks(path) : null,
+    (path, extension) => COMPRESSIBLE.has(extension) ? compress(path) : null
+];
+for (const step of steps) {
+    for await (const path of files(root)) {
+        const work = step(path, extname(path).toLowerCase());
+        if (work) {
+            (await work).forEach(line => console.log(line));
+        }
+    }
+}
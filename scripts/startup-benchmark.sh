@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+# Time-to-first-request and resident memory of the tracker started as a plain JVM, with the
+# AOT/CDS build of the cds Maven profile, and as a native image.
+#
+#   ./mvnw -DskipTests package                        # jvm
+#   ./mvnw -Pcds -DskipTests package                  # cds
+#   ./mvnw -Pnative -DskipTests native:compile        # native (GraalVM)
+#   scripts/startup-benchmark.sh [runs] [variant...]
+#
+# Needs the database from docker-compose.yml. Variants whose build output is missing are skipped.
+# Extra application arguments can be passed in APP_ARGS (default: the dev profile).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+shift || true
+if (( $# )); then
+  VARIANTS=("$@")
+else
+  VARIANTS=(jvm cds native)
+fi
+
+PORT=${PORT:-18080}
+URL="http://localhost:${PORT}/login"
+APP_ARGS=${APP_ARGS:---spring.profiles.active=dev}
+JAR=$(ls target/dog-training-tracker-*.jar 2>/dev/null | grep -v original | head -1 || true)
+CDS_JAR=$(ls target/cds/dog-training-tracker-*.jar 2>/dev/null | head -1 || true)
+NATIVE=target/dog-training-tracker
+
+command_for() {
+  case "$1" in
+    jvm)    [[ -n "$JAR" ]] && echo "java -jar $JAR" ;;
+    cds)    [[ -n "$CDS_JAR" && -f target/cds/application.jsa ]] \
+              && echo "java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -jar $CDS_JAR" ;;
+    native) [[ -x "$NATIVE" ]] && echo "$NATIVE" ;;
+  esac
+}
+
+now_ms() {
+  date +%s%3N
+}
+
+# Starts the app, waits for the first successful response and prints "<ms> <rss-kb>"
+measure() {
+  local start pid ms rss
+  start=$(now_ms)
+  $1 --server.port="$PORT" $APP_ARGS >/dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "failed"
+      return
+    fi
+    sleep 0.01
+  done
+  ms=$(( $(now_ms) - start ))
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$ms $rss"
+}
+
+printf "%-8s %6s %18s %14s\n" variant runs "first request ms" "rss MB"
+for variant in "${VARIANTS[@]}"; do
+  cmd=$(command_for "$variant" || true)
+  if [[ -z "$cmd" ]]; then
+    printf "%-8s %s\n" "$variant" "skipped, not built"
+    continue
+  fi
+
+  total_ms=0
+  total_rss=0
+  for ((i = 0; i < RUNS; i++)); do
+    read -r ms rss <<<"$(measure "$cmd")"
+    if [[ "$ms" == "failed" ]]; then
+      echo "$variant did not start, run it by hand: $cmd" >&2
+      exit 1
+    fi
+    total_ms=$((total_ms + ms))
+    total_rss=$((total_rss + rss))
+  done
+  printf "%-8s %6d %18d %14d\n" "$variant" "$RUNS" $((total_ms / RUNS)) $((total_rss / RUNS / 1024))
+done
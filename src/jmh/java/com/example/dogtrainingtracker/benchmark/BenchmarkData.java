@@ -0,0 +1,59 @@
+package com.example.dogtrainingtracker.benchmark;
+
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.entities.DogTraining;
+import com.example.dogtrainingtracker.entities.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic entities for the benchmarks
+final class BenchmarkData {
+
+    private static final String[] ACTIVITIES = {"Lydnad", "Agility", "Spårning", "Vallning", "Apportering", "Nosarbete"};
+    private static final String[] LOCATIONS = {"Hundparken", "Träningshall", "Skogen", "Gården", "Hundklubben", "Stranden"};
+
+    private BenchmarkData() {}
+
+    static List<Dog> dogs(int count) {
+        User owner = new User();
+        owner.setId(1);
+        owner.setUsername("user");
+        owner.setRole("ROLE_USER");
+
+        List<Dog> dogs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Dog dog = new Dog();
+            dog.setId(i + 1);
+            dog.setName("Dog " + i);
+            dog.setBreed("Border Collie");
+            dog.setBirthdate(LocalDate.of(2020, 1, 1).plusDays(i % 1000));
+            dog.setOwner(owner);
+            dogs.add(dog);
+        }
+        return dogs;
+    }
+
+    static List<DogTraining> trainings(int count, Dog dog) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+
+        List<DogTraining> trainings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DogTraining training = new DogTraining();
+            training.setId(i + 1);
+            training.setActivity(ACTIVITIES[random.nextInt(ACTIVITIES.length)]);
+            training.setLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+            training.setTrainingDate(start.plusDays(random.nextInt(5 * 365)));
+            training.setDurationMinutes(15 + random.nextInt(90));
+            training.setNotes("Bra pass, jobbade med kontakt och fokus " + i);
+            training.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(i));
+            training.setDog(dog);
+            trainings.add(training);
+        }
+        return trainings;
+    }
+}
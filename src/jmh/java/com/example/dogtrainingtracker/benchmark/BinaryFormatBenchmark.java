@@ -0,0 +1,59 @@
+package com.example.dogtrainingtracker.benchmark;
+
+import com.example.dogtrainingtracker.config.BinaryFormatsConfig;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON against the CBOR and Smile representations of a trainings list, with the mappers the API uses.
+// The encoded size of each format is printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private List<DogTrainingResponseDTO> trainings;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> BinaryFormatsConfig.cborMapper();
+            case "smile" -> BinaryFormatsConfig.smileMapper();
+            default -> JsonMapper.builder().build();
+        };
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, DogTrainingResponseDTO.class);
+
+        trainings = BenchmarkData.trainings(size, BenchmarkData.dogs(1).getFirst()).stream()
+                .map(DogTrainingResponseDTO::new)
+                .toList();
+        encoded = mapper.writeValueAsBytes(trainings);
+
+        System.out.printf("%n%s, %d trainings: %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(trainings);
+    }
+
+    @Benchmark
+    public List<DogTrainingResponseDTO> deserialize() {
+        return mapper.readValue(encoded, listType);
+    }
+}
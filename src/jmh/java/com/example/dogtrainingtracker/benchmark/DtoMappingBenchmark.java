@@ -0,0 +1,41 @@
+package com.example.dogtrainingtracker.benchmark;
+
+import com.example.dogtrainingtracker.dto.DogResponseDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.entities.DogTraining;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping of whole result lists, as done by the service layer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DtoMappingBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    private int size;
+
+    private List<Dog> dogs;
+    private List<DogTraining> trainings;
+
+    @Setup
+    public void setUp() {
+        dogs = BenchmarkData.dogs(size);
+        trainings = BenchmarkData.trainings(size, dogs.getFirst());
+    }
+
+    @Benchmark
+    public List<DogTrainingResponseDTO> mapTrainings() {
+        return trainings.stream().map(DogTrainingResponseDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<DogResponseDTO> mapDogs() {
+        return dogs.stream().map(DogResponseDTO::new).toList();
+    }
+}
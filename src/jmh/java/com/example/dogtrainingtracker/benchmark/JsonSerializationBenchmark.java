@@ -0,0 +1,47 @@
+package com.example.dogtrainingtracker.benchmark;
+
+import com.example.dogtrainingtracker.dto.DogResponseDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.entities.Dog;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON serialization of list endpoint bodies: one default page, one max page and an unpaged list
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "200", "10000"})
+    private int size;
+
+    private JsonMapper jsonMapper;
+    private List<DogTrainingResponseDTO> trainings;
+    private List<DogResponseDTO> dogs;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+
+        List<Dog> dogEntities = BenchmarkData.dogs(size);
+        dogs = dogEntities.stream().map(DogResponseDTO::new).toList();
+        trainings = BenchmarkData.trainings(size, dogEntities.getFirst()).stream()
+                .map(DogTrainingResponseDTO::new)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTrainings() {
+        return jsonMapper.writeValueAsBytes(trainings);
+    }
+
+    @Benchmark
+    public byte[] serializeDogs() {
+        return jsonMapper.writeValueAsBytes(dogs);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.dogtrainingtracker.benchmark;
+
+import com.example.dogtrainingtracker.DogTrainingTrackerApplication;
+import com.example.dogtrainingtracker.dto.CursorPage;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.PageCursor;
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.entities.DogTraining;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingBatchRepository;
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// DogTrainingService reads against an embedded H2 database seeded with dataSize trainings.
+// Each trial boots the application on its own in-memory database with the test profile.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TrainingServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private DogTrainingService trainingService;
+    private Integer dogId;
+    private String secondPageCursor;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+    private final Authentication admin = new UsernamePasswordAuthenticationToken("admin", null, List.of());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Default properties lose to the profile files, so the test profile's datasource url is overridden
+        // as an argument
+        context = new SpringApplicationBuilder(DogTrainingTrackerApplication.class)
+                .profiles("test", "perf")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run("--spring.datasource.url=jdbc:h2:mem:bench" + dataSize
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        trainingService = context.getBean(DogTrainingService.class);
+
+        // Seed the user's first dog through the JDBC batch path
+        Integer userId = context.getBean(UserRepository.class).findByUsername("user").orElseThrow().getId();
+        Dog dog = context.getBean(DogRepository.class).findByOwnerId(userId).getFirst();
+        dogId = dog.getId();
+
+        List<DogTraining> trainings = BenchmarkData.trainings(dataSize, dog);
+        trainings.forEach(training -> training.setId(null));
+        DogTrainingBatchRepository batchRepository = context.getBean(DogTrainingBatchRepository.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> batchRepository.insertAll(trainings));
+
+        secondPageCursor = trainingService.getTrainingsByDogId(dogId, null, null, null, PageCursor.DEFAULT_LIMIT, user).nextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<DogTrainingResponseDTO> getTrainingsByDogIdFirstPage() {
+        return trainingService.getTrainingsByDogId(dogId, null, null, null, PageCursor.DEFAULT_LIMIT, user);
+    }
+
+    @Benchmark
+    public CursorPage<DogTrainingResponseDTO> getTrainingsByDogIdSecondPage() {
+        return trainingService.getTrainingsByDogId(dogId, null, null, secondPageCursor, PageCursor.DEFAULT_LIMIT, user);
+    }
+
+    @Benchmark
+    public CursorPage<DogTrainingResponseDTO> getAllTrainingsAsUser() {
+        return trainingService.getAllTrainings(null, null, null, PageCursor.DEFAULT_LIMIT, user);
+    }
+
+    @Benchmark
+    public CursorPage<DogTrainingResponseDTO> getAllTrainingsAsAdmin() {
+        return trainingService.getAllTrainings(null, null, null, PageCursor.DEFAULT_LIMIT, admin);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.dogtrainingtracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies in microseconds and error count for one endpoint, recorded concurrently by all workers
+final class EndpointStats {
+
+    // Anything slower than a minute is clamped rather than dropped
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long latencyNanos, boolean error) {
+        recorder.recordValue(Math.min(Math.max(latencyNanos / 1000, 1), HIGHEST_TRACKABLE_MICROS));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    // Drops everything recorded so far, used at the end of the warmup
+    void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    // Histogram of everything recorded since the last reset, and the errors among those requests
+    Snapshot snapshot() {
+        return new Snapshot(name, recorder.getIntervalHistogram(), errors.sum());
+    }
+
+    record Snapshot(String name, Histogram histogram, long errors) {
+
+        long count() {
+            return histogram.getTotalCount();
+        }
+
+        double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        double maxMillis() {
+            return histogram.getMaxValue() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.dogtrainingtracker.loadtest;
+
+import com.example.dogtrainingtracker.DogTrainingTrackerApplication;
+import com.example.dogtrainingtracker.dto.BatchItemResultDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// HTTP load test against the whole application on an embedded H2 database.
+// Boots the app with the test profile, seeds trainings for the dev user, logs in as user and admin
+// (bearer tokens for /api, a form-login session for the pages) and runs a weighted request mix
+// with `concurrency` virtual-thread workers. Reports throughput, error rate and p50/p99/p99.9 per
+// endpoint, and writes one HdrHistogram percentile distribution (.hgrm) per endpoint to `output`.
+//
+// Options: --concurrency=32 --warmup=10s --duration=60s --rate=0 --trainings=20000
+//          --workload=mixed|read|write|pages --seed=42 --output=target/loadtest
+// --rate is requests per second across all workers (open loop); 0 sends the next request as soon
+// as the previous one returns (closed loop). In open-loop mode latency is measured from the
+// scheduled send time, so a stalled server shows up in the percentiles instead of being hidden.
+public final class LoadTest {
+
+    private static final Authentication USER = new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.trainings() < 1) {
+            throw new IllegalArgumentException("--trainings must be at least 1");
+        }
+        List<Workloads.Operation> operations = Workloads.named(options.workload());
+
+        // perf swaps out the test profile's statement recorder; the datasource url is an argument because
+        // default properties lose to the profile files
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DogTrainingTrackerApplication.class)
+                .profiles("test", "perf")
+                .properties(
+                        "server.port=0",
+                        "tracker.api-token.ttl=24h",
+                        "logging.level.root=WARN")
+                .run("--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port);
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+
+            List<Integer> dogIds = context.getBean(DogRepository.class)
+                    .findByOwnerId(context.getBean(UserRepository.class).findByUsername("user").orElseThrow().getId())
+                    .stream()
+                    .map(Dog::getId)
+                    .toList();
+            List<Integer> trainingIds = seed(context.getBean(DogTrainingService.class), dogIds, options);
+
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            Workloads.Fixture fixture = new Workloads.Fixture(
+                    baseUri,
+                    token(client, objectMapper, baseUri, "user", "password"),
+                    token(client, objectMapper, baseUri, "admin", "admin123"),
+                    session(client, baseUri, "user", "password"),
+                    dogIds,
+                    trainingIds);
+
+            Map<String, EndpointStats> stats = run(client, fixture, operations, options);
+            report(stats, options);
+        }
+    }
+
+    // Trainings for the user's dogs through the batch path, spread evenly over the dogs and the past year
+    private static List<Integer> seed(DogTrainingService trainingService, List<Integer> dogIds, LoadTestOptions options) {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        List<Integer> trainingIds = new ArrayList<>(options.trainings());
+        List<DogTrainingRequestDTO> batch = new ArrayList<>(DogTrainingService.MAX_BATCH_SIZE);
+        LocalDate today = LocalDate.now();
+
+        for (int i = 0; i < options.trainings(); i++) {
+            batch.add(new DogTrainingRequestDTO(
+                    i % 3 == 0 ? "Lydnad" : i % 3 == 1 ? "Agility" : "Spårning",
+                    i % 2 == 0 ? "Hundparken" : "Skogen",
+                    today.minusDays(random.nextInt(365)),
+                    10 + random.nextInt(80),
+                    "Seed " + i,
+                    dogIds.get(i % dogIds.size())));
+            if (batch.size() == DogTrainingService.MAX_BATCH_SIZE || i == options.trainings() - 1) {
+                for (BatchItemResultDTO result : trainingService.createTrainings(batch, USER)) {
+                    if (result.training() == null) {
+                        throw new IllegalStateException("Seeding failed: " + result.error());
+                    }
+                    trainingIds.add(result.training().id());
+                }
+                batch.clear();
+            }
+        }
+        System.out.printf("Seeded %d trainings for %d dogs%n", trainingIds.size(), dogIds.size());
+        return trainingIds;
+    }
+
+    private static String token(HttpClient client, ObjectMapper objectMapper, URI baseUri,
+                                String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/auth/token"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                objectMapper.writeValueAsString(Map.of("username", username, "password", password))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Token request for " + username + " failed: " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("accessToken").asString();
+    }
+
+    // Form login; the session cookie from the redirect to /dogs
+    private static String session(HttpClient client, URI baseUri,
+                                  String username, String password) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("username=" + username + "&password=" + password))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        String cookie = response.headers().firstValue("Set-Cookie").orElse("");
+        if (response.statusCode() != 302 || location.contains("error") || cookie.isEmpty()) {
+            throw new IllegalStateException("Form login for " + username + " failed: " + response.statusCode());
+        }
+        return cookie.substring(0, cookie.indexOf(';') < 0 ? cookie.length() : cookie.indexOf(';'));
+    }
+
+    private static Map<String, EndpointStats> run(HttpClient client, Workloads.Fixture fixture,
+                                                  List<Workloads.Operation> operations,
+                                                  LoadTestOptions options) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        int[] cumulativeWeights = new int[operations.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            stats.put(operations.get(i).name(), new EndpointStats(operations.get(i).name()));
+            totalWeight += operations.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        EndpointStats[] statsByOperation = stats.values().toArray(EndpointStats[]::new);
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long deadline = measureFrom + options.duration().toNanos();
+        long interval = options.intervalNanos();
+
+        System.out.printf("Running '%s' with %d workers, %s warmup, %s measured, %s%n",
+                options.workload(), options.concurrency(), options.warmup(), options.duration(),
+                interval > 0 ? options.rate() + " req/s" : "closed loop");
+
+        int weights = totalWeight;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < options.concurrency(); w++) {
+                SplittableRandom random = new SplittableRandom(options.seed() + w);
+                // Stagger open-loop workers so they do not all fire at the same instant
+                long firstSend = start + (interval > 0 ? random.nextLong(interval) : 0);
+                workers.submit(() -> worker(client, fixture, operations, statsByOperation,
+                        cumulativeWeights, weights, random, firstSend, interval, deadline));
+            }
+
+            long remaining;
+            while ((remaining = measureFrom - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+            stats.values().forEach(EndpointStats::reset);
+        }
+        return stats;
+    }
+
+    private static void worker(HttpClient client, Workloads.Fixture fixture, List<Workloads.Operation> operations,
+                               EndpointStats[] stats, int[] cumulativeWeights, int totalWeight,
+                               SplittableRandom random, long firstSend, long interval, long deadline) {
+        long scheduled = firstSend;
+        while (true) {
+            if (interval > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                scheduled = System.nanoTime();
+            }
+            if (scheduled >= deadline) {
+                return;
+            }
+
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+
+            boolean error;
+            try {
+                HttpRequest request = operations.get(index).request().create(fixture, random);
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                error = response.statusCode() >= 400;
+            } catch (IOException e) {
+                error = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            stats[index].record(System.nanoTime() - scheduled, error);
+
+            if (interval > 0) {
+                scheduled += interval;
+            }
+        }
+    }
+
+    private static void report(Map<String, EndpointStats> stats, LoadTestOptions options) throws IOException {
+        Path output = Path.of(options.output());
+        Files.createDirectories(output);
+        double seconds = options.duration().toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+
+        List<EndpointStats.Snapshot> snapshots = new ArrayList<>();
+        Histogram total = null;
+        long totalErrors = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            EndpointStats.Snapshot snapshot = endpoint.snapshot();
+            snapshots.add(snapshot);
+            if (total == null) {
+                total = snapshot.histogram().copy();
+            } else {
+                total.add(snapshot.histogram());
+            }
+            totalErrors += snapshot.errors();
+        }
+        snapshots.add(new EndpointStats.Snapshot("TOTAL", total, totalErrors));
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-38s %9s %9s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "err %", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (EndpointStats.Snapshot snapshot : snapshots) {
+            long count = snapshot.count();
+            summary.append(String.format("%-38s %9d %9.1f %7d %7.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    snapshot.name(), count, count / seconds, snapshot.errors(),
+                    count == 0 ? 0.0 : 100.0 * snapshot.errors() / count,
+                    snapshot.percentileMillis(50), snapshot.percentileMillis(99),
+                    snapshot.percentileMillis(99.9), snapshot.maxMillis()));
+
+            // Values are recorded in microseconds, the distribution is printed in milliseconds
+            Path file = output.resolve(snapshot.name().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                snapshot.histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        System.out.print(summary);
+        Files.writeString(output.resolve("summary.txt"), summary);
+        System.out.println("Histograms written to " + output.toAbsolutePath());
+    }
+}
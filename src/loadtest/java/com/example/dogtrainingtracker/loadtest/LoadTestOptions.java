@@ -0,0 +1,67 @@
+package com.example.dogtrainingtracker.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Command line options, --name=value; see LoadTest for the defaults
+record LoadTestOptions(
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        double rate,
+        int trainings,
+        String workload,
+        long seed,
+        String output
+) {
+    private static final Set<String> NAMES =
+            Set.of("concurrency", "warmup", "duration", "rate", "trainings", "workload", "seed", "output");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "60s")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                Integer.parseInt(values.getOrDefault("trainings", "20000")),
+                values.getOrDefault("workload", "mixed"),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.getOrDefault("output", "target/loadtest")
+        );
+        Set<String> unknown = new TreeSet<>(values.keySet());
+        unknown.removeAll(NAMES);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + unknown);
+        }
+        return options;
+    }
+
+    // 30s, 5m or 500ms
+    private static Duration duration(String value) {
+        String unit = value.replaceAll("[0-9]", "");
+        long amount = Long.parseLong(value.substring(0, value.length() - unit.length()));
+        return switch (unit) {
+            case "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration: " + value);
+        };
+    }
+
+    // Pause between two requests of one worker in open-loop mode, 0 for closed loop
+    long intervalNanos() {
+        return rate > 0 ? (long) (concurrency * 1_000_000_000L / rate) : 0;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.dogtrainingtracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+
+// Request mixes; each operation is one endpoint, picked with a probability proportional to its weight
+final class Workloads {
+
+    private static final String[] ACTIVITIES = {"Lydnad", "Agility", "Spårning", "Vallning", "Apportering", "Nosarbete"};
+    private static final String[] LOCATIONS = {"Hundparken", "Träningshall", "Skogen", "Gården", "Hundklubben", "Stranden"};
+    private static final String[] SEARCH_WORDS = {"lydnad", "skogen", "agility", "spårning", "stranden"};
+
+    // Logged in users and the rows they can reach, prepared by LoadTest before the run
+    record Fixture(URI baseUri,
+                   String userToken,
+                   String adminToken,
+                   String userSession,
+                   List<Integer> userDogIds,
+                   List<Integer> userTrainingIds) {
+    }
+
+    @FunctionalInterface
+    interface RequestFactory {
+        HttpRequest create(Fixture fixture, RandomGenerator random);
+    }
+
+    record Operation(String name, int weight, RequestFactory request) {
+    }
+
+    private Workloads() {}
+
+    static List<Operation> named(String name) {
+        return switch (name) {
+            case "mixed" -> Stream.of(api(), pages(), writes()).flatMap(List::stream).toList();
+            case "read" -> api();
+            case "write" -> writes();
+            case "pages" -> pages();
+            default -> throw new IllegalArgumentException("Unknown workload: " + name + " (mixed, read, write, pages)");
+        };
+    }
+
+    // DogController and DogTrainingController reads, as the user (bearer token) and the admin
+    private static List<Operation> api() {
+        return List.of(
+                new Operation("GET /api/dogs", 15, (f, r) ->
+                        get(f, "/api/dogs").header("Authorization", "Bearer " + f.userToken()).build()),
+                new Operation("GET /api/dogs/{id}", 10, (f, r) ->
+                        get(f, "/api/dogs/" + pick(f.userDogIds(), r)).header("Authorization", "Bearer " + f.userToken()).build()),
+                new Operation("GET /api/dogs/{id}/trainings", 20, (f, r) ->
+                        get(f, "/api/dogs/" + pick(f.userDogIds(), r) + "/trainings?limit=50")
+                                .header("Authorization", "Bearer " + f.userToken()).build()),
+                new Operation("GET /api/dogtraining/{id}", 10, (f, r) ->
+                        get(f, "/api/dogtraining/" + pick(f.userTrainingIds(), r))
+                                .header("Authorization", "Bearer " + f.userToken()).build()),
+                new Operation("GET /api/dogtraining (admin)", 10, (f, r) ->
+                        get(f, "/api/dogtraining?limit=50").header("Authorization", "Bearer " + f.adminToken()).build()),
+                new Operation("GET /api/dogtraining/search", 5, (f, r) ->
+                        get(f, "/api/dogtraining/search?q=" + SEARCH_WORDS[r.nextInt(SEARCH_WORDS.length)])
+                                .header("Authorization", "Bearer " + f.userToken()).build())
+        );
+    }
+
+    // DogViewController pages with the form-login session
+    private static List<Operation> pages() {
+        return List.of(
+                new Operation("GET /dogs", 5, (f, r) ->
+                        get(f, "/dogs").header("Cookie", f.userSession()).build()),
+                new Operation("GET /dogs/{id}", 10, (f, r) ->
+                        get(f, "/dogs/" + pick(f.userDogIds(), r)).header("Cookie", f.userSession()).build())
+        );
+    }
+
+    private static List<Operation> writes() {
+        return List.of(
+                new Operation("POST /api/dogtraining", 10, (f, r) ->
+                        HttpRequest.newBuilder(f.baseUri().resolve("/api/dogtraining"))
+                                .header("Authorization", "Bearer " + f.userToken())
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(trainingJson(pick(f.userDogIds(), r), r)))
+                                .build()),
+                new Operation("POST /dogs/{id}/trainings (fragment)", 5, (f, r) -> {
+                    int dogId = pick(f.userDogIds(), r);
+                    return HttpRequest.newBuilder(f.baseUri().resolve("/dogs/" + dogId + "/trainings"))
+                            .header("Cookie", f.userSession())
+                            .header("X-Fragment", "true")
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(trainingForm(dogId, r)))
+                            .build();
+                })
+        );
+    }
+
+    private static HttpRequest.Builder get(Fixture fixture, String path) {
+        return HttpRequest.newBuilder(fixture.baseUri().resolve(path)).GET();
+    }
+
+    private static int pick(List<Integer> ids, RandomGenerator random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String trainingJson(int dogId, RandomGenerator random) {
+        return """
+                {"dogId": %d, "activity": "%s", "location": "%s", "trainingDate": "%s", "durationMinutes": %d, "notes": "Lasttest"}"""
+                .formatted(dogId, ACTIVITIES[random.nextInt(ACTIVITIES.length)], LOCATIONS[random.nextInt(LOCATIONS.length)],
+                        LocalDate.now().minusDays(random.nextInt(365)), 10 + random.nextInt(80));
+    }
+
+    private static String trainingForm(int dogId, RandomGenerator random) {
+        return "dogId=" + dogId
+                + "&activity=" + ACTIVITIES[random.nextInt(ACTIVITIES.length)]
+                + "&location=" + LOCATIONS[random.nextInt(LOCATIONS.length)]
+                + "&trainingDate=" + LocalDate.now().minusDays(random.nextInt(365))
+                + "&durationMinutes=" + (10 + random.nextInt(80))
+                + "&notes=Lasttest";
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.dogtrainingtracker.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Binary alternatives to JSON for the API, chosen by Accept / Content-Type:
+// application/cbor and application/x-jackson-smile. Same DTOs and field names as the JSON bodies,
+// but dates are written as numeric arrays ([2025,1,31]) instead of ISO strings.
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // In order of preference when the client accepts several equally, so */* and no Accept get JSON
+    public static final List<MediaType> API_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    // The API media type a response to this Accept header is written in, 406 if none is acceptable.
+    // Conditional GETs pick it before the ETag check, so the tag can name the format
+    public static MediaType selectApiMediaType(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Invalid Accept header");
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producible : API_MEDIA_TYPES) {
+                if (mediaType.includes(producible)) {
+                    return producible;
+                }
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Acceptable: " + API_MEDIA_TYPES);
+    }
+
+    public static CBORMapper cborMapper() {
+        return CBORMapper.builder()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    // Smile also replaces repeated field names with back-references, which pays off on long lists
+    public static SmileMapper smileMapper() {
+        return SmileMapper.builder()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Bean
+    public JacksonCborHttpMessageConverter cborHttpMessageConverter() {
+        return new JacksonCborHttpMessageConverter(cborMapper());
+    }
+
+    @Bean
+    public JacksonSmileHttpMessageConverter smileHttpMessageConverter() {
+        return new JacksonSmileHttpMessageConverter(smileMapper());
+    }
+}
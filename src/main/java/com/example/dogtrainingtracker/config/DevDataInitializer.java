@@ -7,17 +7,22 @@ import com.example.dogtrainingtracker.entities.User;
 import com.example.dogtrainingtracker.repository.DogRepository;
 import com.example.dogtrainingtracker.repository.DogTrainingRepository;
 import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.service.TrainingStatisticsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.List;
 
+// Runs before the other startup runners, which work on the seeded data
 @Component
+@Order(0)
 public class DevDataInitializer implements ApplicationRunner {
 
     private static final Logger log = LoggerFactory.getLogger(DevDataInitializer.class);
@@ -26,20 +31,30 @@ public class DevDataInitializer implements ApplicationRunner {
     private final DogTrainingRepository trainingRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TrainingStatisticsService statisticsService;
+    private final boolean enabled;
 
     public DevDataInitializer(DogRepository dogRepository,
                               DogTrainingRepository trainingRepository,
                               UserRepository userRepository,
-                              PasswordEncoder passwordEncoder) {
+                              PasswordEncoder passwordEncoder,
+                              TrainingStatisticsService statisticsService,
+                              @Value("${tracker.dev-data.enabled:true}") boolean enabled) {
         this.dogRepository = dogRepository;
         this.trainingRepository = trainingRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.statisticsService = statisticsService;
+        this.enabled = enabled;
     }
 
     @Override
     @Transactional
     public void run(ApplicationArguments args) {
+        // A runtime switch rather than @Profile/@Conditional, which AOT processing would fix at build time
+        if (!enabled) {
+            return;
+        }
         boolean forceInit = args.containsOption("force-init");
 
         if (forceInit || userRepository.count() == 0) {
@@ -170,10 +185,11 @@ public class DevDataInitializer implements ApplicationRunner {
             training9.setNotes("Tränade 'stanna' på distans, behöver mer övning");
             training9.setDog(luna);
 
-            trainingRepository.saveAll(List.of(
+            var trainings = trainingRepository.saveAll(List.of(
                     training1, training2, training3, training4, training5,
                     training6, training7, training8, training9
             ));
+            statisticsService.recordAdded(trainings);
 
             log.info("Dev data initialized: {} users, {} dogs, {} trainings",
                     userRepository.count(),
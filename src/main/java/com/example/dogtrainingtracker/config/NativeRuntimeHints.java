@@ -0,0 +1,34 @@
+package com.example.dogtrainingtracker.config;
+
+import com.example.dogtrainingtracker.ingest.PendingTraining;
+import com.example.dogtrainingtracker.repository.TrainingArchiveRepository;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+// Reflection and resource hints for the native image that Spring cannot infer from the bean definitions
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Caffeine JCache reads its region settings from Typesafe config files
+        hints.resources().registerPattern("application.conf");
+        hints.resources().registerPattern("reference.conf");
+        hints.reflection().registerType(
+                TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Written to and read from the write-behind journal with Jackson
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), PendingTraining.class);
+
+        // Read back from archived segments with Smile
+        new BindingReflectionHintsRegistrar().registerReflectionHints(
+                hints.reflection(), TrainingArchiveRepository.StoredTraining.class);
+    }
+}
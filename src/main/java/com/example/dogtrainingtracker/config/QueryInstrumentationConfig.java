@@ -0,0 +1,90 @@
+package com.example.dogtrainingtracker.config;
+
+import com.example.dogtrainingtracker.monitoring.ConnectionCountingDataSource;
+import com.example.dogtrainingtracker.monitoring.EntityLoadCountingListener;
+import com.example.dogtrainingtracker.monitoring.HandlerTaggingInterceptor;
+import com.example.dogtrainingtracker.monitoring.QueryCountingFilter;
+import com.example.dogtrainingtracker.monitoring.QueryCountingStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import javax.sql.DataSource;
+
+// Per-request SQL instrumentation: statements, connection checkouts and entity loads,
+// see com.example.dogtrainingtracker.monitoring
+@Configuration
+@ConditionalOnProperty(name = "tracker.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInstrumentationConfig {
+
+    @Bean
+    public FilterRegistrationBean<QueryCountingFilter> queryCountingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${tracker.query-budget.max-statements:10}") int statementBudget,
+            @Value("${tracker.query-budget.repeat-threshold:5}") int repeatThreshold) {
+        var registration = new FilterRegistrationBean<>(
+                new QueryCountingFilter(meterRegistry, statementBudget, repeatThreshold));
+        // Outermost, so statements issued by the security filter chain are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public MappedInterceptor handlerTaggingInterceptor() {
+        return new MappedInterceptor(null, new HandlerTaggingInterceptor());
+    }
+
+    // Keeps any inspector configured through spring.jpa.properties (the test profile records SQL this way)
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingStatementInspector() {
+        return properties -> {
+            Object configured = properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+            StatementInspector delegate = switch (configured) {
+                case null -> null;
+                case StatementInspector inspector -> inspector;
+                case Class<?> type -> (StatementInspector) BeanUtils.instantiateClass(type);
+                default -> (StatementInspector) BeanUtils.instantiateClass(
+                        ClassUtils.resolveClassName(configured.toString(), getClass().getClassLoader()));
+            };
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector(delegate));
+        };
+    }
+
+    // Wraps the pools only; proxies over them (the read replica routing) would count each checkout twice
+    @Bean
+    public static BeanPostProcessor connectionCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+                        ? new ConnectionCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public InitializingBean entityLoadCountingListenerRegistration(EntityManagerFactory entityManagerFactory) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, new EntityLoadCountingListener());
+    }
+}
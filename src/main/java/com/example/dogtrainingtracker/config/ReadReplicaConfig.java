@@ -0,0 +1,62 @@
+package com.example.dogtrainingtracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Primary and replica pools behind a routing data source, only when a replica url is configured.
+// Without it the auto-configured single data source is used as before. Under AOT the condition is
+// evaluated at build time, so AOT and native builds must be made with the replica setting they run with.
+@Configuration
+@ConditionalOnProperty("tracker.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Same driver, credentials and driver properties as the primary unless overridden; pool settings under
+    // tracker.datasource.replica.hikari. The driver properties matter: streaming exports read from the replica
+    // and need useCursorFetch there too
+    @Bean
+    @ConfigurationProperties("tracker.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Qualifier("primaryDataSource") HikariDataSource primary,
+                                              @Value("${tracker.datasource.replica.url}") String url,
+                                              @Value("${tracker.datasource.replica.username:#{null}}") String username,
+                                              @Value("${tracker.datasource.replica.password:#{null}}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setJdbcUrl(url);
+        dataSource.setDataSourceProperties(primary.getDataSourceProperties());
+        if (username != null) {
+            dataSource.setUsername(username);
+        }
+        if (password != null) {
+            dataSource.setPassword(password);
+        }
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${tracker.datasource.replica.sticky-window:5s}") Duration stickyWindow) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica, stickyWindow));
+    }
+}
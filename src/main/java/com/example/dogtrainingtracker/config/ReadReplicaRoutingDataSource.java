@@ -0,0 +1,74 @@
+package com.example.dogtrainingtracker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// Sends connections of read-only transactions to the replica and everything else to the primary.
+// A user who wrote within the sticky window keeps reading from the primary, so they see their own writes
+// even when the replica lags. Must sit behind a LazyConnectionDataSourceProxy: the transaction is only
+// marked read-only after the transaction manager asked for its connection.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .build();
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    public Route currentRoute() {
+        String username = currentUsername();
+
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return username != null && recentWriters.getIfPresent(username) != null ? Route.PRIMARY : Route.REPLICA;
+        }
+
+        if (username != null) {
+            markWriter(username);
+        }
+        return Route.PRIMARY;
+    }
+
+    // The window starts now and again when the transaction completes, so a long write does not use it up
+    private void markWriter(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, username);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReadReplicaRoutingDataSource.this);
+                    recentWriters.put(username, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dogtrainingtracker.config;
+
+import com.example.dogtrainingtracker.service.TrainingSearchService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Loads the search index snapshot on startup and catches it up with the database, after dev data is seeded
+@Component
+@Order(200)
+public class SearchIndexInitializer implements ApplicationRunner {
+
+    private final TrainingSearchService searchService;
+
+    public SearchIndexInitializer(TrainingSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        searchService.synchronize();
+    }
+}
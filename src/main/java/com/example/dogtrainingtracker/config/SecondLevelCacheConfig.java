@@ -0,0 +1,16 @@
+package com.example.dogtrainingtracker.config;
+
+import com.example.dogtrainingtracker.monitoring.SecondLevelCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hibernate second-level cache: settings in application.properties, regions in application.conf
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public SecondLevelCacheMetrics secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return new SecondLevelCacheMetrics(entityManagerFactory);
+    }
+}
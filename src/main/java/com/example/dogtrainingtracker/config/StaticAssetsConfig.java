@@ -0,0 +1,44 @@
+package com.example.dogtrainingtracker.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+// Static assets under content-hash URLs (style.css -> style-<md5>.css), so they can be cached for a year.
+// @{...} links in templates and url(...) in stylesheets are rewritten to the hashed names; the .br / .gz
+// variants written by scripts/build-assets.mjs are sent to clients that accept them. Those skip the
+// CssLinkResourceTransformer, so the build script versions stylesheet links itself before compressing.
+@Configuration
+public class StaticAssetsConfig implements WebMvcConfigurer {
+
+    static final String[] ASSET_DIRECTORIES = {"css", "js", "images"};
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        CacheControl immutable = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+        for (String directory : ASSET_DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    .setCacheControl(immutable)
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                    .addTransformer(new CssLinkResourceTransformer());
+        }
+    }
+
+    // Rewrites URLs passed through HttpServletResponse.encodeURL, which Thymeleaf does for @{...}
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.dogtrainingtracker.config;
+
+import com.example.dogtrainingtracker.service.TrainingStatisticsService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Rebuilds the training summary table on startup when run with --rebuild-stats
+@Component
+@Order(100)
+public class StatisticsRebuildRunner implements ApplicationRunner {
+
+    private final TrainingStatisticsService statisticsService;
+
+    public StatisticsRebuildRunner(TrainingStatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("rebuild-stats")) {
+            statisticsService.rebuild();
+        }
+    }
+}
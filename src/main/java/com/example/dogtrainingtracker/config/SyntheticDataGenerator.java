@@ -0,0 +1,331 @@
+package com.example.dogtrainingtracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Production-sized synthetic data: users, dogs per user and a skewed number of trainings per dog.
+// Users and dogs are few enough for JDBC batches with generated keys; trainings are written as
+// multi-row INSERTs by parallel workers, one transaction per chunk of dogs.
+// Every row is derived from the seed, the anchor date (today) and its position, so the same settings give the same data
+// whatever the number of threads (only the auto-increment ids may differ between runs).
+public class SyntheticDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int KEY_BATCH_SIZE = 500;
+    private static final long PROGRESS_EVERY = 1_000_000;
+
+    private static final String INSERT_USER_SQL =
+            "insert into users (username, password, role, enabled) values (?, ?, 'ROLE_USER', true)";
+    private static final String INSERT_DOG_SQL =
+            "insert into dog (name, breed, birthdate, owner_id) values (?, ?, ?, ?)";
+    private static final String INSERT_TRAINING_COLUMNS =
+            "insert into dog_training (activity, location, training_date, duration_minutes, notes, dog_id, created_at, last_modified) values ";
+    private static final int TRAINING_PARAMS = 8;
+
+    // Typical minutes and places per activity; weights roughly follow how often each is logged
+    private record Activity(String name, int weight, int typicalMinutes, String... locations) {
+    }
+
+    private static final Activity[] ACTIVITIES = {
+            new Activity("Lydnad", 30, 35, "Hundparken", "Hundklubben", "Trädgården", "Träningsplats"),
+            new Activity("Agility", 14, 50, "Träningshall", "Hundklubben", "Agilitybanan"),
+            new Activity("Nosarbete", 12, 30, "Vardagsrummet", "Träningsplats", "Trädgården"),
+            new Activity("Socialträning", 10, 40, "Hundparken", "Stan", "Hunddagis"),
+            new Activity("Spårning", 9, 60, "Skogen", "Ängen", "Skogsstigen"),
+            new Activity("Apportering", 8, 30, "Stranden", "Sjön", "Ängen"),
+            new Activity("Rallylydnad", 7, 45, "Hundklubben", "Träningshall"),
+            new Activity("Promenadträning", 7, 50, "Skogen", "Stan", "Parken"),
+            new Activity("Vallning", 3, 90, "Gården", "Hagen"),
+    };
+    private static final int[] ACTIVITY_WEIGHTS = Arrays.stream(ACTIVITIES).mapToInt(Activity::weight).toArray();
+
+    private static final String[] BREEDS = {
+            "Labrador retriever", "Golden retriever", "Schäfer", "Border collie", "Chihuahua",
+            "Jack russell terrier", "Cocker spaniel", "Tax", "Shetland sheepdog", "Pudel",
+            "Bichon frisé", "Blandras", "Australian shepherd", "Cavalier king charles spaniel", "Fransk bulldogg"
+    };
+    private static final int[] BREED_WEIGHTS = {14, 10, 9, 8, 6, 6, 5, 5, 5, 4, 4, 12, 4, 4, 4};
+
+    private static final String[] DOG_NAMES = {
+            "Bella", "Molly", "Charlie", "Luna", "Ludde", "Sixten", "Alice", "Frasse", "Zelda", "Nala",
+            "Leia", "Milo", "Ronja", "Tyson", "Wilma", "Doris", "Kiwi", "Otto", "Sigge", "Selma",
+            "Peggy", "Rosa", "Nelson", "Majken", "Elsa", "Loke", "Morris", "Tess", "Bonnie", "Harry"
+    };
+
+    private static final String[] OWNER_NAMES = {
+            "anna", "erik", "maria", "lars", "karin", "johan", "sara", "anders", "emma", "per",
+            "elin", "mikael", "linnea", "fredrik", "ida", "oskar", "hanna", "karl", "sofia", "nils"
+    };
+
+    // Roughly a third of the sessions get no notes at all
+    private static final String[] NOTES = {
+            null, null, null,
+            "Bra fokus hela passet",
+            "Lite ofokuserad i början, bättre mot slutet",
+            "Många distraktioner idag",
+            "Gjorde stora framsteg",
+            "Behöver mer övning på distans",
+            "Kort pass, det var varmt",
+            "Tränade med andra hundar runt omkring",
+            "Belönade med godis, fungerade bra",
+            "Tappade koncentrationen efter halva tiden",
+            "Nytt moment, lovande start",
+    };
+
+    public record Settings(int users,
+                           int dogsPerUser,
+                           int trainingsPerDog,
+                           double trainingsSkew,
+                           int historyYears,
+                           long seed,
+                           int threads,
+                           int rowsPerInsert) {
+    }
+
+    public record Result(int users, int dogs, long trainings) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String passwordHash;
+    private final LocalDate today;
+
+    // passwordHash is stored for every generated user; encoding once keeps bcrypt out of the loop
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  String passwordHash, LocalDate today) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordHash = passwordHash;
+        this.today = today;
+    }
+
+    static String username(int userIndex, long seed) {
+        return OWNER_NAMES[userIndex % OWNER_NAMES.length] + "." + userIndex + ".s" + seed;
+    }
+
+    public Result generate(Settings settings) throws InterruptedException {
+        Integer existing = jdbcTemplate.queryForObject(
+                "select count(*) from users where username = ?", Integer.class, username(0, settings.seed()));
+        if (existing != null && existing > 0) {
+            log.info("Synthetic data for seed {} already present. Skipping generation.", settings.seed());
+            return new Result(0, 0, 0);
+        }
+
+        long started = System.nanoTime();
+        List<Integer> userIds = transactionTemplate.execute(status -> insertUsers(settings));
+        List<Integer> dogIds = transactionTemplate.execute(status -> insertDogs(settings, userIds));
+        log.info("Generated {} users and {} dogs, loading trainings with {} threads...",
+                userIds.size(), dogIds.size(), settings.threads());
+
+        long trainings = insertTrainings(settings, dogIds);
+        log.info("Synthetic data generated: {} users, {} dogs, {} trainings in {} s",
+                userIds.size(), dogIds.size(), trainings, (System.nanoTime() - started) / 1_000_000_000);
+        return new Result(userIds.size(), dogIds.size(), trainings);
+    }
+
+    private List<Integer> insertUsers(Settings settings) {
+        return insertWithKeys(INSERT_USER_SQL, settings.users(), (ps, i) -> {
+            ps.setString(1, username(i, settings.seed()));
+            ps.setString(2, passwordHash);
+        });
+    }
+
+    // Dog i belongs to user i / dogsPerUser
+    private List<Integer> insertDogs(Settings settings, List<Integer> userIds) {
+        return insertWithKeys(INSERT_DOG_SQL, userIds.size() * settings.dogsPerUser(), (ps, i) -> {
+            DogRow dog = dog(settings.seed(), i);
+            ps.setString(1, dog.name());
+            ps.setString(2, dog.breed());
+            ps.setObject(3, dog.birthdate());
+            ps.setInt(4, userIds.get(i / settings.dogsPerUser()));
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    // JDBC batches that return the generated ids in insertion order, like DogTrainingBatchRepository
+    private List<Integer> insertWithKeys(String sql, int count, RowSetter setter) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += KEY_BATCH_SIZE) {
+            int offset = from;
+            int size = Math.min(KEY_BATCH_SIZE, count - from);
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            setter.set(ps, offset + i);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    },
+                    keys);
+            keys.getKeyList().forEach(row -> ids.add(((Number) row.values().iterator().next()).intValue()));
+        }
+        return ids;
+    }
+
+    // Contiguous ranges of dogs per task, several tasks per thread so uneven dogs even out
+    private long insertTrainings(Settings settings, List<Integer> dogIds) throws InterruptedException {
+        int tasks = Math.max(1, Math.min(dogIds.size(), settings.threads() * 16));
+        int dogsPerTask = (dogIds.size() + tasks - 1) / tasks;
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong nextReport = new AtomicLong(PROGRESS_EVERY);
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(settings.threads())) {
+            for (int from = 0; from < dogIds.size(); from += dogsPerTask) {
+                int start = from;
+                int end = Math.min(from + dogsPerTask, dogIds.size());
+                futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                        insertTrainingsForDogs(settings, dogIds, start, end, inserted, nextReport))));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    futures.forEach(f -> f.cancel(true));
+                    throw new IllegalStateException("Generating trainings failed", e.getCause());
+                }
+            }
+        }
+        return inserted.get();
+    }
+
+    private void insertTrainingsForDogs(Settings settings, List<Integer> dogIds, int start, int end,
+                                        AtomicLong inserted, AtomicLong nextReport) {
+        String fullSql = multiRowInsert(settings.rowsPerInsert());
+        Object[] params = new Object[settings.rowsPerInsert() * TRAINING_PARAMS];
+        int rows = 0;
+
+        for (int dog = start; dog < end; dog++) {
+            LocalDate birthdate = dog(settings.seed(), dog).birthdate();
+            SplittableRandom random = random(settings.seed(), dog, 1);
+            int count = trainingCount(settings, random);
+            LocalDate from = later(birthdate.plusMonths(4), today.minusYears(settings.historyYears()));
+            int days = (int) Math.max(1, today.toEpochDay() - from.toEpochDay() + 1);
+
+            // Sorted dates so ids grow with the training date per dog, as with real logging
+            long[] dates = new long[count];
+            for (int i = 0; i < count; i++) {
+                dates[i] = from.toEpochDay() + random.nextInt(days);
+            }
+            Arrays.sort(dates);
+
+            for (long epochDay : dates) {
+                Activity activity = ACTIVITIES[pick(ACTIVITY_WEIGHTS, random)];
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                LocalDateTime createdAt = date.atTime(LocalTime.of(7 + random.nextInt(15), random.nextInt(60)));
+                int minutes = Math.max(5, (int) Math.round(activity.typicalMinutes() * (0.6 + random.nextDouble() * 0.8)));
+
+                int p = rows * TRAINING_PARAMS;
+                params[p] = activity.name();
+                params[p + 1] = activity.locations()[random.nextInt(activity.locations().length)];
+                params[p + 2] = date;
+                params[p + 3] = minutes;
+                params[p + 4] = NOTES[random.nextInt(NOTES.length)];
+                params[p + 5] = dogIds.get(dog);
+                params[p + 6] = createdAt;
+                params[p + 7] = createdAt;
+
+                if (++rows == settings.rowsPerInsert()) {
+                    jdbcTemplate.update(fullSql, params);
+                    report(inserted.addAndGet(rows), nextReport);
+                    rows = 0;
+                }
+            }
+        }
+        if (rows > 0) {
+            jdbcTemplate.update(multiRowInsert(rows), Arrays.copyOf(params, rows * TRAINING_PARAMS));
+            report(inserted.addAndGet(rows), nextReport);
+        }
+    }
+
+    private static void report(long total, AtomicLong nextReport) {
+        long next = nextReport.get();
+        if (total >= next && nextReport.compareAndSet(next, next + PROGRESS_EVERY)) {
+            log.info("{} trainings inserted", total);
+        }
+    }
+
+    private static String multiRowInsert(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_TRAINING_COLUMNS);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
+    // Log-normal around trainingsPerDog: a skew of 0 gives every dog the same count, larger values
+    // give a long tail of very active dogs and many with only a handful; the mean stays the same
+    static int trainingCount(Settings settings, SplittableRandom random) {
+        double sigma = settings.trainingsSkew();
+        double factor = Math.exp(sigma * random.nextGaussian() - sigma * sigma / 2);
+        return (int) Math.min(Math.round(settings.trainingsPerDog() * factor), 50L * settings.trainingsPerDog());
+    }
+
+    // Independent, reproducible stream per row and purpose
+    private static SplittableRandom random(long seed, int index, int purpose) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index * 31L + purpose);
+    }
+
+    private record DogRow(String name, String breed, LocalDate birthdate) {
+    }
+
+    // Dogs between one and fourteen years old; derived from the seed and the dog's position only
+    private DogRow dog(long seed, int index) {
+        SplittableRandom random = random(seed, index, 0);
+        return new DogRow(
+                DOG_NAMES[random.nextInt(DOG_NAMES.length)],
+                BREEDS[pick(BREED_WEIGHTS, random)],
+                today.minusDays(365 + random.nextInt(13 * 365)));
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static int pick(int[] weights, SplittableRandom random) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.dogtrainingtracker.config;
+
+import com.example.dogtrainingtracker.service.TrainingStatisticsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+// Loads production-sized synthetic data on startup when run with --generate-data, after the dev data
+// and before the statistics and search index runners. Generated users log in with "password".
+@Component
+@Order(50)
+public class SyntheticDataInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final TrainingStatisticsService statisticsService;
+    private final SyntheticDataGenerator.Settings settings;
+    private final String anchorDate;
+
+    public SyntheticDataInitializer(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    PasswordEncoder passwordEncoder,
+                                    TrainingStatisticsService statisticsService,
+                                    @Value("${tracker.data-generator.users:1000}") int users,
+                                    @Value("${tracker.data-generator.dogs-per-user:3}") int dogsPerUser,
+                                    @Value("${tracker.data-generator.trainings-per-dog:200}") int trainingsPerDog,
+                                    @Value("${tracker.data-generator.trainings-skew:1.0}") double trainingsSkew,
+                                    @Value("${tracker.data-generator.history-years:3}") int historyYears,
+                                    @Value("${tracker.data-generator.seed:42}") long seed,
+                                    @Value("${tracker.data-generator.threads:4}") int threads,
+                                    @Value("${tracker.data-generator.rows-per-insert:500}") int rowsPerInsert,
+                                    @Value("${tracker.data-generator.anchor-date:}") String anchorDate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.statisticsService = statisticsService;
+        this.settings = new SyntheticDataGenerator.Settings(users, dogsPerUser, trainingsPerDog, trainingsSkew,
+                historyYears, seed, threads, rowsPerInsert);
+        this.anchorDate = anchorDate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!args.containsOption("generate-data")) {
+            return;
+        }
+        // Birthdates and training dates count back from the anchor, so a fixed anchor gives the same rows on any day
+        LocalDate today = anchorDate.isBlank() ? LocalDate.now() : LocalDate.parse(anchorDate);
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(
+                jdbcTemplate, transactionTemplate, passwordEncoder.encode("password"), today);
+        if (generator.generate(settings).trainings() > 0) {
+            // Rows were written past the incremental statistics path
+            statisticsService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.dogtrainingtracker.config;
+
+import com.example.dogtrainingtracker.repository.TrainingPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+// Keeps months-ahead empty monthly partitions in front of today on startup, so new trainings never
+// pile up in p_future where splitting would have to move rows. Checks tracker.partitioning.enabled at
+// run time rather than as a bean condition, which AOT would fix at build time
+@Component
+@Order(10)
+public class TrainingPartitionMaintenance implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingPartitionMaintenance.class);
+
+    private final TrainingPartitionRepository partitionRepository;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    public TrainingPartitionMaintenance(TrainingPartitionRepository partitionRepository,
+                                        @Value("${tracker.partitioning.enabled:false}") boolean enabled,
+                                        @Value("${tracker.partitioning.months-ahead:12}") int monthsAhead) {
+        this.partitionRepository = partitionRepository;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        if (!partitionRepository.isPartitioned()) {
+            log.warn("tracker.partitioning.enabled is set but dog_training is not partitioned;"
+                    + " partitioning is only applied by migration V6");
+            return;
+        }
+        partitionRepository.addMonthsThrough(YearMonth.now().plusMonths(monthsAhead));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.dogtrainingtracker.controller;
+
+import com.example.dogtrainingtracker.dto.RefreshTokenRequestDTO;
+import com.example.dogtrainingtracker.dto.TokenRequestDTO;
+import com.example.dogtrainingtracker.dto.TokenResponseDTO;
+import com.example.dogtrainingtracker.security.ApiTokenService;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/auth")
+public class ApiTokenController {
+
+    private final AuthenticationManager authenticationManager;
+    private final CurrentUserResolver currentUserResolver;
+    private final ApiTokenService tokenService;
+
+    public ApiTokenController(AuthenticationManager authenticationManager, CurrentUserResolver currentUserResolver,
+                              ApiTokenService tokenService) {
+        this.authenticationManager = authenticationManager;
+        this.currentUserResolver = currentUserResolver;
+        this.tokenService = tokenService;
+    }
+
+    // Exchanges username and password for an access and a refresh token
+    @PostMapping("/token")
+    public TokenResponseDTO token(@Valid @RequestBody TokenRequestDTO dto) {
+        Authentication auth;
+        try {
+            auth = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(dto.username(), dto.password()));
+        } catch (AuthenticationException ex) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bad credentials");
+        }
+        return tokenService.issue(currentUserResolver.resolve(auth.getName()));
+    }
+
+    // Exchanges a refresh token for a new pair; the old refresh token cannot be used again.
+    // The user is read again, so a new role or a disabled account takes effect here.
+    @PostMapping("/refresh")
+    public TokenResponseDTO refresh(@Valid @RequestBody RefreshTokenRequestDTO dto) {
+        String username = tokenService.redeemRefreshToken(dto.refreshToken());
+        return tokenService.issue(currentUserResolver.resolve(username));
+    }
+
+    // Logout for token clients: revokes the bearer token and, if sent along, its refresh token
+    @PostMapping("/revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revoke(@AuthenticationPrincipal Jwt accessToken,
+                       @RequestBody(required = false) RefreshTokenRequestDTO dto) {
+        if (accessToken == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only bearer tokens can be revoked");
+        }
+        tokenService.revoke(accessToken, dto != null ? dto.refreshToken() : null);
+    }
+}
@@ -1,18 +1,28 @@
 package com.example.dogtrainingtracker.controller;
 
+import com.example.dogtrainingtracker.config.BinaryFormatsConfig;
+import com.example.dogtrainingtracker.dto.CursorPage;
 import com.example.dogtrainingtracker.dto.DogRequestDTO;
 import com.example.dogtrainingtracker.dto.DogResponseDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.DogVersionDTO;
+import com.example.dogtrainingtracker.dto.PageCursor;
 import com.example.dogtrainingtracker.service.DogService;
 import com.example.dogtrainingtracker.service.DogTrainingService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -27,17 +37,29 @@ public class DogController {
         this.dogTrainingService = dogTrainingService;
     }
 
-    // Returns a list of all dogs accessible to the authenticated user
+    // Returns a page of dogs accessible to the authenticated user
     // Admins see all dogs; users see only their own
+    // The cursor for the next page is returned in the X-Next-Cursor header
     @GetMapping
-    public List<DogResponseDTO> getDogs(Authentication auth) {
-        return dogService.getAllDogs(auth);
+    public ResponseEntity<List<DogResponseDTO>> getDogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_LIMIT) int limit,
+            Authentication auth) {
+        return toResponse(dogService.getDogs(cursor, limit, auth));
     }
 
     // Returns details of a specific dog by its ID
+    // Answers If-None-Match / If-Modified-Since with 304 after reading only the dog's version columns.
+    // JSON, CBOR and Smile bodies differ, so the format is chosen first and named in the ETag
     @GetMapping("/{id}")
-    public DogResponseDTO getById(@PathVariable Integer id, Authentication auth) {
-        return dogService.getDogById(id, auth);
+    public ResponseEntity<DogResponseDTO> getById(@PathVariable Integer id, Authentication auth, WebRequest request,
+                                                  HttpServletResponse response) {
+        MediaType mediaType = negotiate(request, response);
+        DogVersionDTO version = dogService.getDogVersion(id, auth);
+        if (request.checkNotModified(version.dogETag(mediaType.getSubtype()), version.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(mediaType).body(dogService.getDogById(id, auth));
     }
 
     // Creates a new dog (accessible to users with USER or ADMIN roles)
@@ -61,20 +83,33 @@ public class DogController {
         return ResponseEntity.noContent().build();
     }
 
-    // Get all trainings for a specific dog or query for a specific activity
+    // Get a page of trainings for a specific dog or query for a specific activity,
+    // optionally limited to training dates from..to (inclusive ISO dates)
     @GetMapping("/{dogId}/trainings")
-    public List<DogTrainingResponseDTO> getTrainingsForDog(
+    public ResponseEntity<List<DogTrainingResponseDTO>> getTrainingsForDog(
             @PathVariable Integer dogId,
             @RequestParam(required = false) String activity,
-            Authentication auth) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_LIMIT) int limit,
+            Authentication auth,
+            WebRequest request,
+            HttpServletResponse response) {
 
-        if (activity != null) {
-            // Filter by activity if a parameter is present
-            return dogTrainingService.getTrainingsByDogIdAndActivity(dogId, activity, auth);
+        // The ETag follows the dog's trainings version, so polling clients get a 304 without the list query
+        MediaType mediaType = negotiate(request, response);
+        DogVersionDTO version = dogService.getDogVersion(dogId, auth);
+        if (request.checkNotModified(version.trainingsETag(mediaType.getSubtype(), activity, from, to, cursor, limit))) {
+            return null;
         }
 
-        // Otherwise get all trainings for this dog
-        return dogTrainingService.getTrainingsByDogId(dogId, auth);
+        CursorPage<DogTrainingResponseDTO> page = activity != null
+                // Filter by activity if a parameter is present
+                ? dogTrainingService.getTrainingsByDogIdAndActivity(dogId, activity, from, to, cursor, limit, auth)
+                // Otherwise get all trainings for this dog
+                : dogTrainingService.getTrainingsByDogId(dogId, from, to, cursor, limit, auth);
+        return toResponse(page, mediaType);
     }
 
     // Add a new training for a specific dog
@@ -88,4 +123,26 @@ public class DogController {
         DogTrainingResponseDTO response = dogService.addTrainingForDog(dogId, dto, auth);
         return ResponseEntity.created(URI.create("/api/dogs/" + dogId + "/trainings/" + response.id())).body(response);
     }
+
+    // Picks the body format for an ETag-checked response; Vary tells shared caches the body depends on Accept
+    private static MediaType negotiate(WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return BinaryFormatsConfig.selectApiMediaType(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        return toResponse(page, null);
+    }
+
+    // mediaType, when set, overrides content negotiation
+    private static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page, MediaType mediaType) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (mediaType != null) {
+            response.contentType(mediaType);
+        }
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
 }
@@ -1,15 +1,25 @@
 package com.example.dogtrainingtracker.controller;
 
+import com.example.dogtrainingtracker.dto.BatchItemResultDTO;
+import com.example.dogtrainingtracker.dto.CursorPage;
 import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.ExportFormat;
+import com.example.dogtrainingtracker.dto.IngestReceiptDTO;
+import com.example.dogtrainingtracker.dto.PageCursor;
 import com.example.dogtrainingtracker.service.DogTrainingService;
+import com.example.dogtrainingtracker.service.TrainingExportService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,16 +27,46 @@ import java.util.List;
 public class DogTrainingController {
 
     private final DogTrainingService dogTrainingService;
+    private final TrainingExportService trainingExportService;
 
-    public DogTrainingController(DogTrainingService dogTrainingService) {
+    public DogTrainingController(DogTrainingService dogTrainingService, TrainingExportService trainingExportService) {
         this.dogTrainingService = dogTrainingService;
+        this.trainingExportService = trainingExportService;
     }
 
-    // Returns a list of all dog training sessions
+    // Returns a page of dog training sessions ordered by training date, optionally within from..to
     // Admins see all dog training sessions; users see only their own
+    // The cursor for the next page is returned in the X-Next-Cursor header
     @GetMapping
-    public List<DogTrainingResponseDTO> getAll(Authentication auth) {
-        return dogTrainingService.getAllTrainings(auth);
+    public ResponseEntity<List<DogTrainingResponseDTO>> getAll(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_LIMIT) int limit,
+            Authentication auth) {
+        CursorPage<DogTrainingResponseDTO> page = dogTrainingService.getAllTrainings(from, to, cursor, limit, auth);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // Streams every accessible dog training session as NDJSON (default) or CSV
+    // Rows are written as they are read from the database, so the export size is unbounded
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication auth) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> trainingExportService.exportTrainings(exportFormat, auth, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"trainings." + exportFormat.fileExtension() + "\"")
+                .body(body);
     }
 
     // Returns details of a specific dog training session by its ID
@@ -36,13 +76,35 @@ public class DogTrainingController {
     }
 
     // Creates a new dog training session
+    // In write-behind mode the training is queued and 202 is returned with a tracking id to poll
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<DogTrainingResponseDTO> create(@Valid @RequestBody DogTrainingRequestDTO dto, Authentication auth) {
+    public ResponseEntity<?> create(@Valid @RequestBody DogTrainingRequestDTO dto, Authentication auth) {
+        if (dogTrainingService.isWriteBehindEnabled()) {
+            IngestReceiptDTO receipt = dogTrainingService.submitTraining(dto, auth);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/dogtraining/ingest/" + receipt.trackingId()))
+                    .body(receipt);
+        }
+
         DogTrainingResponseDTO response = dogTrainingService.createTraining(dto, auth);
         return ResponseEntity.created(URI.create("/api/dogtraining/" + response.id())).body(response);
     }
 
+    // State of a training submitted in write-behind mode: PENDING, CREATED (with the training) or FAILED
+    @GetMapping("/ingest/{trackingId}")
+    public IngestReceiptDTO getIngestStatus(@PathVariable String trackingId, Authentication auth) {
+        return dogTrainingService.getIngestStatus(trackingId, auth);
+    }
+
+    // Creates many dog training sessions across several dogs in one request
+    // Returns one result per item, so invalid items do not abort the rest of the batch
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public List<BatchItemResultDTO> createBatch(@RequestBody List<DogTrainingRequestDTO> dtos, Authentication auth) {
+        return dogTrainingService.createTrainings(dtos, auth);
+    }
+
     // Deletes a specific dog training session by its ID
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Integer id, Authentication auth) {
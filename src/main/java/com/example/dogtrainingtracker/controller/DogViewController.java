@@ -1,19 +1,28 @@
 package com.example.dogtrainingtracker.controller;
 
+import com.example.dogtrainingtracker.dto.CursorPage;
 import com.example.dogtrainingtracker.dto.DogResponseDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.DogVersionDTO;
 import com.example.dogtrainingtracker.service.DogService;
 import com.example.dogtrainingtracker.service.DogTrainingService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
@@ -23,6 +32,11 @@ import java.util.List;
 @RequestMapping("/dogs")
 public class DogViewController {
 
+    // Sent by dog-details.js, which wants only the changed fragment back instead of a redirect
+    static final String FRAGMENT_HEADER = "X-Fragment";
+
+    static final int PAGE_SIZE = 25;
+
     private final DogService dogService;
     private final DogTrainingService dogTrainingService;
 
@@ -38,67 +52,72 @@ public class DogViewController {
         return "dogs"; // points to dogs.html in templates
     }
 
+    // One page of trainings, newest first. The browser revalidates the page and gets a 304 from the
+    // version columns alone while nothing changed; a page carrying a flash message is never stored.
     @GetMapping("/{id}")
-    public String dogDetails(@PathVariable Integer id, Model model, Authentication auth) {
-        DogResponseDTO dog = dogService.getDogById(id, auth);
-        List<DogTrainingResponseDTO> trainings =
-                dogTrainingService.getTrainingsByDogId(id, auth);
-
-        model.addAttribute("dog", dog);
-        model.addAttribute("trainings", trainings);
-        model.addAttribute("trainingForm", new DogTrainingRequestDTO(
-                "", "", LocalDate.now(), 0, "", id
-        ));
+    public String dogDetails(@PathVariable Integer id,
+                             @RequestParam(required = false) String cursor,
+                             Model model,
+                             Authentication auth,
+                             WebRequest request,
+                             HttpServletResponse response) {
+        if (model.containsAttribute("successMessage")) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        } else {
+            DogVersionDTO version = dogService.getDogVersion(id, auth);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            if (request.checkNotModified(version.trainingsETag(version.version(), cursor))) {
+                return null;
+            }
+        }
 
+        addDetails(model, id, cursor, auth);
+        model.addAttribute("trainingForm", emptyForm(id));
         return "dog-details";
     }
 
+    // Post/Redirect/Get: a successful submit redirects back to the first page
     @PostMapping("/{dogId}/trainings")
     public String addTraining(
             @PathVariable Integer dogId,
-            @Valid DogTrainingRequestDTO dto,
+            @Valid @ModelAttribute("trainingForm") DogTrainingRequestDTO dto,
             BindingResult bindingResult,
             Model model,
-            Authentication auth
+            Authentication auth,
+            RedirectAttributes redirectAttributes
     ) {
         if (bindingResult.hasErrors()) {
-            model.addAttribute("dog", dogService.getDogById(dogId, auth));
-            model.addAttribute(
-                    "trainings",
-                    dogTrainingService.getTrainingsByDogId(dogId, auth)
-            );
-            model.addAttribute("trainingForm", dto);
+            addDetails(model, dogId, null, auth);
             return "dog-details";
         }
 
-        DogTrainingRequestDTO request = new DogTrainingRequestDTO(
-                dto.activity(),
-                dto.location(),
-                dto.trainingDate(),
-                dto.durationMinutes(),
-                dto.notes(),
-                dogId
-        );
+        dogService.addTrainingForDog(dogId, forDog(dto, dogId), auth);
 
-        dogService.addTrainingForDog(dogId, request, auth);
+        redirectAttributes.addFlashAttribute("successMessage", "Träning sparad");
+        return "redirect:/dogs/" + dogId;
+    }
 
-        // Reload data for view
-        model.addAttribute("dog", dogService.getDogById(dogId, auth));
-        model.addAttribute(
-                "trainings",
-                dogTrainingService.getTrainingsByDogId(dogId, auth)
-        );
+    // Fragment variant: the new table row, or the form with its errors
+    @PostMapping(value = "/{dogId}/trainings", headers = FRAGMENT_HEADER)
+    public String addTrainingFragment(
+            @PathVariable Integer dogId,
+            @Valid @ModelAttribute("trainingForm") DogTrainingRequestDTO dto,
+            BindingResult bindingResult,
+            Model model,
+            Authentication auth,
+            HttpServletResponse response
+    ) {
+        model.addAttribute("dogId", dogId);
 
-        // Reset form
-        model.addAttribute(
-                "trainingForm",
-                new DogTrainingRequestDTO("", "", LocalDate.now(), 0, "", dogId)
-        );
+        if (bindingResult.hasErrors()) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return "dog-details :: training-form";
+        }
 
-        // Success feedback
-        model.addAttribute("successMessage", "Träning sparad");
+        DogTrainingResponseDTO training = dogService.addTrainingForDog(dogId, forDog(dto, dogId), auth);
 
-        return "dog-details";
+        model.addAttribute("training", training);
+        return "dog-details :: training-row";
     }
 
     @PostMapping("/{dogId}/trainings/{trainingId}/delete")
@@ -116,5 +135,41 @@ public class DogViewController {
 
         return "redirect:/dogs/" + dogId;
     }
-}
 
+    // Fragment variant: nothing to render, the script removes the row
+    @PostMapping(value = "/{dogId}/trainings/{trainingId}/delete", headers = FRAGMENT_HEADER)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteTrainingFragment(
+            @PathVariable Integer dogId,
+            @PathVariable Integer trainingId,
+            Authentication auth
+    ) {
+        dogTrainingService.deleteTraining(trainingId, auth);
+    }
+
+    private void addDetails(Model model, Integer dogId, String cursor, Authentication auth) {
+        CursorPage<DogTrainingResponseDTO> page =
+                dogTrainingService.getRecentTrainingsByDogId(dogId, cursor, PAGE_SIZE, auth);
+
+        model.addAttribute("dog", dogService.getDogById(dogId, auth));
+        model.addAttribute("dogId", dogId);
+        model.addAttribute("trainings", page.items());
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("nextCursor", page.nextCursor());
+    }
+
+    private static DogTrainingRequestDTO emptyForm(Integer dogId) {
+        return new DogTrainingRequestDTO("", "", LocalDate.now(), 0, "", dogId);
+    }
+
+    private static DogTrainingRequestDTO forDog(DogTrainingRequestDTO dto, Integer dogId) {
+        return new DogTrainingRequestDTO(
+                dto.activity(),
+                dto.location(),
+                dto.trainingDate(),
+                dto.durationMinutes(),
+                dto.notes(),
+                dogId
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.dogtrainingtracker.controller;
+
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.service.TrainingSearchService;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dogtraining")
+public class TrainingSearchController {
+
+    private final TrainingSearchService searchService;
+
+    public TrainingSearchController(TrainingSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // Full-text search in notes, activity and location; every word must match
+    // Admins search all trainings; users only their own dogs' trainings
+    @GetMapping("/search")
+    public List<DogTrainingResponseDTO> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "" + TrainingSearchService.DEFAULT_LIMIT) int limit,
+            Authentication auth) {
+        return searchService.search(query, limit, auth);
+    }
+}
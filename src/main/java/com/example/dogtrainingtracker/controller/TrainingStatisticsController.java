@@ -0,0 +1,65 @@
+package com.example.dogtrainingtracker.controller;
+
+import com.example.dogtrainingtracker.dto.TrainingStatsDTO;
+import com.example.dogtrainingtracker.entities.TrainingPeriod;
+import com.example.dogtrainingtracker.service.TrainingStatisticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class TrainingStatisticsController {
+
+    private final TrainingStatisticsService statisticsService;
+
+    public TrainingStatisticsController(TrainingStatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    // Training totals per activity and week or month for one dog
+    @GetMapping("/dogs/{dogId}/statistics")
+    public List<TrainingStatsDTO> getDogStatistics(
+            @PathVariable Integer dogId,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth) {
+        return statisticsService.getDogStatistics(dogId, toPeriod(period), from, to, auth);
+    }
+
+    // Training totals per activity and week or month over all dogs of the authenticated user
+    // Admins get every dog, or the dogs of ownerId when given
+    @GetMapping("/statistics")
+    public List<TrainingStatsDTO> getOwnerStatistics(
+            @RequestParam(required = false) Integer ownerId,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth) {
+        return statisticsService.getOwnerStatistics(ownerId, toPeriod(period), from, to, auth);
+    }
+
+    // Recomputes the summary table from all trainings
+    @PostMapping("/statistics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuild() {
+        statisticsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static TrainingPeriod toPeriod(String period) {
+        try {
+            return TrainingPeriod.valueOf(period.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period must be week or month");
+        }
+    }
+}
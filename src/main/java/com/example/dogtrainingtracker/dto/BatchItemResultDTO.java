@@ -0,0 +1,17 @@
+package com.example.dogtrainingtracker.dto;
+
+// Outcome of one item in a batch request, in the same position as the request item
+public record BatchItemResultDTO(
+        int index,
+        int status,
+        DogTrainingResponseDTO training,
+        String error
+) {
+    public static BatchItemResultDTO created(int index, DogTrainingResponseDTO training) {
+        return new BatchItemResultDTO(index, 201, training, null);
+    }
+
+    public static BatchItemResultDTO failed(int index, int status, String error) {
+        return new BatchItemResultDTO(index, status, null, error);
+    }
+}
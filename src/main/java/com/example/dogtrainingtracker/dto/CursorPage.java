@@ -0,0 +1,21 @@
+package com.example.dogtrainingtracker.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset-paginated list; nextCursor is null on the last page
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Builds a page from a query that fetched limit + 1 rows, the extra row only tells us there is more
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.getLast()));
+    }
+}
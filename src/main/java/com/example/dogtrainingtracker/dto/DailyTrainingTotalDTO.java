@@ -0,0 +1,13 @@
+package com.example.dogtrainingtracker.dto;
+
+import java.time.LocalDate;
+
+// Trainings of one dog and activity on one day, the input for rebuilding the summary table
+public record DailyTrainingTotalDTO(
+        Integer dogId,
+        String activity,
+        LocalDate trainingDate,
+        Long sessions,
+        Long totalMinutes
+) {
+}
@@ -13,8 +13,16 @@ public record DogTrainingResponseDTO(
         int durationMinutes,
         String notes,
         Integer dogId,
-        LocalDateTime createdAt
+        LocalDateTime createdAt,
+        // Read from training_archive: listed and exported, but not found by id and not deletable
+        boolean archived
 ) {
+    // Constructor for trainings in dog_training, also used by the JPQL constructor expressions
+    public DogTrainingResponseDTO(Integer id, String activity, String location, LocalDate trainingDate,
+                                  int durationMinutes, String notes, Integer dogId, LocalDateTime createdAt) {
+        this(id, activity, location, trainingDate, durationMinutes, notes, dogId, createdAt, false);
+    }
+
     // Constructor that converts from Entity to DTO
     public DogTrainingResponseDTO(DogTraining entity) {
         this(
@@ -0,0 +1,50 @@
+package com.example.dogtrainingtracker.dto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+// Version columns of a dog, read on their own to answer conditional GETs without loading the resource
+public record DogVersionDTO(
+        Integer id,
+        long version,
+        LocalDateTime lastModified,
+        long trainingsVersion
+) {
+    // Strong ETag of the dog itself in one body format (the media subtype, e.g. "json")
+    public String dogETag(String format) {
+        return "\"dog-" + id + "-" + version + "-" + format + "\"";
+    }
+
+    // Strong ETag of one trainings listing; the body format and the query parameters select a different representation.
+    // They go in as a SHA-256 digest, so two different queries cannot realistically share a tag and get a wrong 304;
+    // each is length-prefixed and null is told apart from "null"
+    public String trainingsETag(Object... query) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Object parameter : query) {
+            if (parameter == null) {
+                digest.update((byte) 0);
+                continue;
+            }
+            byte[] bytes = parameter.toString().getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) 1);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+        return "\"trainings-" + id + "-" + trainingsVersion + "-"
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.dogtrainingtracker.dto;
+
+// State of a training submitted through the write-behind queue; training is set once it is stored
+public record IngestReceiptDTO(
+        String trackingId,
+        Status status,
+        DogTrainingResponseDTO training
+) {
+    public enum Status {
+        PENDING, CREATED, FAILED
+    }
+}
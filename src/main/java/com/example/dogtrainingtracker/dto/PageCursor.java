@@ -0,0 +1,83 @@
+package com.example.dogtrainingtracker.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Keyset position for cursor pagination, (trainingDate, id) for trainings and (id) for dogs.
+// Clients only ever see the opaque token produced by encode().
+public record PageCursor(LocalDate date, int id) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    // Lowest date MySQL accepts, so the first page can use the same seek predicate as the rest
+    private static final LocalDate FIRST_DATE = LocalDate.of(1000, 1, 1);
+    // Highest date MySQL accepts, for the first page of a newest-first listing
+    private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
+
+    public static PageCursor first() {
+        return new PageCursor(FIRST_DATE, 0);
+    }
+
+    // Like decode, but a missing token starts above every row instead of below
+    public static PageCursor decodeNewestFirst(String token) {
+        if (token == null || token.isBlank()) {
+            return new PageCursor(LAST_DATE, Integer.MAX_VALUE);
+        }
+        return decode(token);
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return first();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                return new PageCursor(FIRST_DATE, Integer.parseInt(raw));
+            }
+            return new PageCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    // This position, or the first row on or after from when that lies further ahead,
+    // so a date range seeks straight to its first day
+    public PageCursor notBefore(LocalDate from) {
+        return from != null && date.isBefore(from) ? new PageCursor(from, 0) : this;
+    }
+
+    // Inclusive upper bound of a date range; no bound reads to the end
+    public static LocalDate orLast(LocalDate to) {
+        return to != null ? to : LAST_DATE;
+    }
+
+    public static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+    }
+
+    public static int clampLimit(int limit) {
+        return Math.clamp(limit, 1, MAX_LIMIT);
+    }
+
+    public static String encode(int id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(LocalDate date, int id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
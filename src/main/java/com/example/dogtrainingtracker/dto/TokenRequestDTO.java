@@ -0,0 +1,12 @@
+package com.example.dogtrainingtracker.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record TokenRequestDTO(
+        @NotBlank(message = "Username is required")
+        String username,
+
+        @NotBlank(message = "Password is required")
+        String password
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.dogtrainingtracker.dto;
+
+// Bearer token pair for the REST API; expiresIn is the access token lifetime in seconds
+public record TokenResponseDTO(
+        String accessToken,
+        String refreshToken,
+        String tokenType,
+        long expiresIn
+) {
+}
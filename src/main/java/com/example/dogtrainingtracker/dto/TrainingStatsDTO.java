@@ -0,0 +1,12 @@
+package com.example.dogtrainingtracker.dto;
+
+import java.time.LocalDate;
+
+// Totals for one activity in one week or month
+public record TrainingStatsDTO(
+        String activity,
+        LocalDate periodStart,
+        Long sessions,
+        Long totalMinutes
+) {
+}
@@ -1,10 +1,18 @@
 package com.example.dogtrainingtracker.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dog")
+@SQLRestriction("deleted = false")
 public class Dog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,10 +27,27 @@ public class Dog {
     @Column(nullable = false)
     private LocalDate birthdate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime lastModified;
+
+    // Bumped with a bulk update whenever one of the dog's trainings is added or removed,
+    // never written through the entity so a stale copy cannot overwrite it.
+    // The bulk update leaves the "dog" cache region alone, so read it through DogVersionDTO, not this field.
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long trainingsVersion;
+
+    // Soft delete: hidden from every query at once, the row and its trainings are purged later by DogPurger
+    @Column(nullable = false)
+    private boolean deleted;
 
     public Integer getId() {
         return id;
@@ -63,4 +88,20 @@ public class Dog {
     public void setOwner(User owner) {
         this.owner = owner;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void markDeleted() {
+        this.deleted = true;
+    }
 }
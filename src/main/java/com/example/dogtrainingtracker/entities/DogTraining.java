@@ -2,12 +2,16 @@ package com.example.dogtrainingtracker.entities;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 
+// Trainings of a soft-deleted dog disappear with it; the subquery reads the handful of deleted dogs from idx_dog_deleted
 @Entity
+@SQLRestriction("dog_id not in (select d.id from dog d where d.deleted = true)")
 public class DogTraining {
 
     @Id
@@ -30,7 +34,7 @@ public class DogTraining {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dog_id")
     private Dog dog;
 
@@ -38,6 +42,18 @@ public class DogTraining {
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdAt;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Tracking id of trainings stored through the write-behind queue
+    @Column(length = 36, unique = true, updatable = false)
+    private String ingestId;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime lastModified;
+
     public DogTraining() {}
 
     public Integer getId() {
@@ -102,4 +118,24 @@ public class DogTraining {
     public void setDog(Dog dog) {
         this.dog = dog;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getIngestId() {
+        return ingestId;
+    }
+
+    public void setIngestId(String ingestId) {
+        this.ingestId = ingestId;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
 }
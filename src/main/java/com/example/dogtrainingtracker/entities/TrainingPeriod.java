@@ -0,0 +1,19 @@
+package com.example.dogtrainingtracker.entities;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Period granularity of the training summary table
+public enum TrainingPeriod {
+    WEEK,
+    MONTH;
+
+    // First day of the period containing the date, weeks start on Monday
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.dogtrainingtracker.entities;
+
+import jakarta.persistence.*;
+
+// Pre-aggregated training totals per (dog, period, activity), maintained on every training write
+@Entity
+@Table(name = "training_summary")
+public class TrainingSummary {
+
+    @EmbeddedId
+    private TrainingSummaryId id;
+
+    @Column(nullable = false)
+    private long sessionCount;
+
+    @Column(nullable = false)
+    private long totalMinutes;
+
+    public TrainingSummary() {}
+
+    public TrainingSummaryId getId() {
+        return id;
+    }
+
+    public void setId(TrainingSummaryId id) {
+        this.id = id;
+    }
+
+    public long getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(long sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    public void setTotalMinutes(long totalMinutes) {
+        this.totalMinutes = totalMinutes;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.dogtrainingtracker.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class TrainingSummaryId implements Serializable {
+
+    @Column(name = "dog_id", nullable = false)
+    private Integer dogId;
+
+    // Plain varchar rather than a MySQL ENUM, so adding a period is a code change only
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 10)
+    private TrainingPeriod periodType;
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false, length = 100)
+    private String activity;
+
+    public TrainingSummaryId() {}
+
+    public TrainingSummaryId(Integer dogId, TrainingPeriod periodType, LocalDate periodStart, String activity) {
+        this.dogId = dogId;
+        this.periodType = periodType;
+        this.periodStart = periodStart;
+        this.activity = activity;
+    }
+
+    public Integer getDogId() {
+        return dogId;
+    }
+
+    public TrainingPeriod getPeriodType() {
+        return periodType;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public String getActivity() {
+        return activity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TrainingSummaryId that)) return false;
+        return Objects.equals(dogId, that.dogId)
+                && periodType == that.periodType
+                && Objects.equals(periodStart, that.periodStart)
+                && Objects.equals(activity, that.activity);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dogId, periodType, periodStart, activity);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dogtrainingtracker.ingest;
+
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A training accepted by the write-behind queue but not yet committed; ingestId is the tracking id
+// returned to the client and the unique key that makes replaying the journal idempotent
+public record PendingTraining(
+        String ingestId,
+        Integer dogId,
+        String activity,
+        String location,
+        LocalDate trainingDate,
+        int durationMinutes,
+        String notes,
+        LocalDateTime createdAt
+) {
+    public PendingTraining(String ingestId, DogTrainingRequestDTO dto, LocalDateTime createdAt) {
+        this(ingestId, dto.dogId(), dto.activity(), dto.location(), dto.trainingDate(), dto.durationMinutes(),
+                dto.notes(), createdAt);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.dogtrainingtracker.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Append-only NDJSON journal of accepted write-behind trainings. Every append is forced to disk
+// before the client gets its 202. New entries go to the journal file itself; after segmentEntries appends
+// it is sealed as journal-file.1, .2, ... and a fresh file started. A sealed segment is deleted once all
+// its entries are committed and the journal file truncated, so the journal stays bounded even when
+// the queue never runs empty.
+class TrainingIngestJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingIngestJournal.class);
+
+    // Entries of one file still waiting for their commit
+    private static final class Segment {
+        private Path file;
+        private int appended;
+        private int outstanding;
+
+        private Segment(Path file) {
+            this.file = file;
+        }
+    }
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final int segmentEntries;
+    private final Map<String, Segment> segmentByIngestId = new HashMap<>();
+    private final TreeMap<Long, Segment> sealed = new TreeMap<>();
+    private Segment active;
+    private FileChannel channel;
+
+    TrainingIngestJournal(Path file, ObjectMapper objectMapper, int segmentEntries) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.segmentEntries = segmentEntries;
+        this.active = new Segment(file);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.channel = open();
+            String prefix = file.getFileName() + ".";
+            try (DirectoryStream<Path> siblings = Files.newDirectoryStream(file.toAbsolutePath().getParent(),
+                    prefix + "*")) {
+                for (Path sibling : siblings) {
+                    String suffix = sibling.getFileName().toString().substring(prefix.length());
+                    if (suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty()) {
+                        sealed.put(Long.parseLong(suffix), new Segment(sibling));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open ingest journal " + file, e);
+        }
+    }
+
+    // Entries left by a previous run, committed or not, oldest segment first; a torn last line from a
+    // crash is skipped
+    synchronized List<PendingTraining> readAll() {
+        List<PendingTraining> entries = new ArrayList<>();
+        for (Segment segment : sealed.values().toArray(Segment[]::new)) {
+            entries.addAll(read(segment));
+            if (segment.outstanding == 0) {
+                delete(segment);
+            }
+        }
+        entries.addAll(read(active));
+        return entries;
+    }
+
+    synchronized void append(PendingTraining training) throws IOException {
+        if (active.appended >= segmentEntries) {
+            seal();
+        }
+        byte[] line = (objectMapper.writeValueAsString(training) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        active.appended++;
+        active.outstanding++;
+        segmentByIngestId.put(training.ingestId(), active);
+    }
+
+    // Called after a group commit with the ingest ids of the group; segments with nothing outstanding
+    // are deleted, and the journal file starts over
+    synchronized void committed(List<String> ingestIds) {
+        Set<Segment> touched = new LinkedHashSet<>();
+        for (String ingestId : ingestIds) {
+            Segment segment = segmentByIngestId.remove(ingestId);
+            if (segment != null) {
+                segment.outstanding--;
+                touched.add(segment);
+            }
+        }
+        for (Segment segment : touched) {
+            if (segment.outstanding > 0) {
+                continue;
+            }
+            if (segment == active) {
+                try {
+                    channel.truncate(0);
+                    channel.force(false);
+                    active.appended = 0;
+                } catch (IOException e) {
+                    // Harmless: replay skips entries whose ingest id is already stored
+                    log.warn("Could not truncate ingest journal {}", file, e);
+                }
+            } else {
+                delete(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private List<PendingTraining> read(Segment segment) {
+        List<PendingTraining> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(segment.file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    PendingTraining training = objectMapper.readValue(line, PendingTraining.class);
+                    entries.add(training);
+                    segmentByIngestId.put(training.ingestId(), segment);
+                } catch (JacksonException e) {
+                    log.warn("Skipping unreadable ingest journal line in {}", segment.file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ingest journal " + segment.file, e);
+        }
+        segment.appended = entries.size();
+        segment.outstanding = entries.size();
+        return entries;
+    }
+
+    // Moves the full journal file aside as the next sealed segment and starts an empty one
+    private void seal() throws IOException {
+        long sequence = sealed.isEmpty() ? 1 : sealed.lastKey() + 1;
+        Path target = file.resolveSibling(file.getFileName() + "." + sequence);
+        channel.close();
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Keep appending to the same file, sealing is tried again with the next append
+            log.warn("Could not seal ingest journal {} as {}", file, target, e);
+            return;
+        } finally {
+            channel = open();
+        }
+        active.file = target;
+        sealed.put(sequence, active);
+        active = new Segment(file);
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file);
+            sealed.values().remove(segment);
+        } catch (IOException e) {
+            // Harmless: the next start replays it and the entries are skipped by ingest id
+            log.warn("Could not delete ingest journal segment {}", segment.file, e);
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
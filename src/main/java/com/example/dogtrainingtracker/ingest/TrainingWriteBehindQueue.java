@@ -0,0 +1,252 @@
+package com.example.dogtrainingtracker.ingest;
+
+import com.example.dogtrainingtracker.service.TrainingIngestWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Optional write-behind mode for single training creation (tracker.write-behind.enabled).
+// Accepted trainings are journaled to disk, queued in memory and committed by one writer thread
+// in groups of up to batch-size, waiting at most max-delay for a group to fill.
+// At most capacity trainings can be outstanding; beyond that callers wait offer-timeout and then get 503.
+@Component
+public class TrainingWriteBehindQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingWriteBehindQueue.class);
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final TrainingIngestWriter writer;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path journalFile;
+    private final int journalSegmentEntries;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration offerTimeout;
+
+    private final BlockingQueue<PendingTraining> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> replayed = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> failed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private TrainingIngestJournal journal;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public TrainingWriteBehindQueue(TrainingIngestWriter writer, ObjectMapper objectMapper,
+                                    @Value("${tracker.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${tracker.write-behind.journal-file:data/ingest-journal.ndjson}") Path journalFile,
+                                    @Value("${tracker.write-behind.journal-segment-entries:10000}") int journalSegmentEntries,
+                                    @Value("${tracker.write-behind.capacity:10000}") int capacity,
+                                    @Value("${tracker.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${tracker.write-behind.max-delay:20ms}") Duration maxDelay,
+                                    @Value("${tracker.write-behind.offer-timeout:1s}") Duration offerTimeout) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.journalFile = journalFile;
+        this.journalSegmentEntries = journalSegmentEntries;
+        this.capacity = new Semaphore(capacity);
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.offerTimeout = offerTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns once the training is durable in the journal; throws 503 when the queue stays full
+    public void submit(PendingTraining training) {
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write-behind queue is not running");
+        }
+        try {
+            if (!capacity.tryAcquire(offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many trainings waiting to be stored, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the queue");
+        }
+
+        try {
+            journal.append(training);
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException("Could not journal training " + training.ingestId(), e);
+        }
+        pending.add(training.ingestId());
+        queue.add(training);
+    }
+
+    public boolean isPending(String ingestId) {
+        return pending.contains(ingestId);
+    }
+
+    public boolean hasFailed(String ingestId) {
+        return failed.getIfPresent(ingestId) != null;
+    }
+
+    // Replays the journal of a previous run before accepting new trainings
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        journal = new TrainingIngestJournal(journalFile, objectMapper, journalSegmentEntries);
+        List<PendingTraining> replay = journal.readAll();
+        if (!replay.isEmpty()) {
+            log.info("Replaying {} journaled trainings", replay.size());
+        }
+        // Replayed entries were acknowledged by the previous run, so they bypass the capacity limit
+        for (PendingTraining training : replay) {
+            pending.add(training.ingestId());
+            replayed.add(training.ingestId());
+            queue.add(training);
+        }
+
+        running = true;
+        writerThread = Thread.ofPlatform().name("training-write-behind").daemon().start(this::drain);
+    }
+
+    // Stops accepting and commits what is queued; anything left stays in the journal for the next start
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(Duration.ofSeconds(30));
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Could not close ingest journal", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server, so no request sees the queue closed
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<PendingTraining> group = nextGroup();
+                if (!group.isEmpty()) {
+                    commit(group);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<PendingTraining> nextGroup() throws InterruptedException {
+        List<PendingTraining> group = new ArrayList<>(batchSize);
+        PendingTraining first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return group;
+        }
+        group.add(first);
+
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (group.size() < batchSize) {
+            queue.drainTo(group, batchSize - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            PendingTraining next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            group.add(next);
+        }
+        return group;
+    }
+
+    // Acknowledged trainings are only dropped when they can never be stored: a commit that fails for a
+    // transient reason is retried until it succeeds or we shut down. A group rejected by the database itself
+    // (constraint violation, value too long) is split and committed row by row, so one bad row cannot stall
+    // the writer; a row still rejected on its own is marked failed, like a training whose dog is gone
+    private void commit(List<PendingTraining> group) throws InterruptedException {
+        while (true) {
+            try {
+                List<String> missingDogs = writer.write(group);
+                missingDogs.forEach(ingestId -> {
+                    failed.put(ingestId, Boolean.TRUE);
+                    log.warn("Dropped write-behind training {}: its dog no longer exists", ingestId);
+                });
+                break;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Could not commit {} write-behind trainings, they stay in the journal", group.size(), e);
+                    return;
+                }
+                if (e instanceof DataIntegrityViolationException) {
+                    if (group.size() > 1) {
+                        log.warn("Database rejected a group of {} write-behind trainings, committing them one by one",
+                                group.size(), e);
+                        for (PendingTraining training : group) {
+                            commit(List.of(training));
+                        }
+                        return;
+                    }
+                    failed.put(group.getFirst().ingestId(), Boolean.TRUE);
+                    log.error("Dropped write-behind training {}: the database rejected it",
+                            group.getFirst().ingestId(), e);
+                    break;
+                }
+                log.warn("Could not commit {} write-behind trainings, retrying", group.size(), e);
+                Thread.sleep(RETRY_DELAY);
+            }
+        }
+        int permits = 0;
+        for (PendingTraining training : group) {
+            pending.remove(training.ingestId());
+            if (!replayed.remove(training.ingestId())) {
+                permits++;
+            }
+        }
+        capacity.release(permits);
+        journal.committed(group.stream().map(PendingTraining::ingestId).toList());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.dogtrainingtracker.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Counts pool checkouts per request, including those from JdbcTemplate
+public class ConnectionCountingDataSource extends DelegatingDataSource {
+
+    public ConnectionCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        record();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        record();
+        return super.getConnection(username, password);
+    }
+
+    private static void record() {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordConnection();
+        }
+    }
+}
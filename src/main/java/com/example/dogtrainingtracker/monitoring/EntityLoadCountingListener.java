@@ -0,0 +1,16 @@
+package com.example.dogtrainingtracker.monitoring;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+// Counts entities hydrated into the persistence context for the current request
+public class EntityLoadCountingListener implements PostLoadEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordEntityLoad();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.dogtrainingtracker.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Binds RequestQueryStats to each request and, when it completes, publishes the counts as metrics
+// tagged with the controller method and warns about statement budget overruns and repeated statements (N+1)
+public class QueryCountingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final int repeatThreshold;
+
+    public QueryCountingFilter(MeterRegistry meterRegistry, int statementBudget, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestQueryStats stats) {
+        String handler = stats.handler();
+
+        DistributionSummary.builder("tracker.request.sql.statements").tag("handler", handler)
+                .register(meterRegistry).record(stats.statements());
+        DistributionSummary.builder("tracker.request.jdbc.connections").tag("handler", handler)
+                .register(meterRegistry).record(stats.connections());
+        DistributionSummary.builder("tracker.request.entity.loads").tag("handler", handler)
+                .register(meterRegistry).record(stats.entityLoads());
+
+        if (stats.statements() > statementBudget) {
+            Counter.builder("tracker.request.sql.budget.exceeded").tag("handler", handler)
+                    .register(meterRegistry).increment();
+            log.warn("{} {} [{}] ran {} SQL statements, budget is {} ({} connections, {} entity loads)",
+                    request.getMethod(), request.getRequestURI(), handler,
+                    stats.statements(), statementBudget, stats.connections(), stats.entityLoads());
+        }
+
+        for (Map.Entry<String, Integer> shape : stats.statementShapes().entrySet()) {
+            if (shape.getValue() >= repeatThreshold) {
+                Counter.builder("tracker.request.sql.repeated").tag("handler", handler)
+                        .register(meterRegistry).increment();
+                log.warn("{} {} [{}] repeated the same statement {} times, possible N+1: {}",
+                        request.getMethod(), request.getRequestURI(), handler, shape.getValue(), shape.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dogtrainingtracker.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts every SQL statement Hibernate prepares against the current request
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private final StatementInspector delegate;
+
+    public QueryCountingStatementInspector(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return delegate != null ? delegate.inspect(sql) : sql;
+    }
+}
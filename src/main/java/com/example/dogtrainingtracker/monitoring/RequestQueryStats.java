@@ -0,0 +1,78 @@
+package com.example.dogtrainingtracker.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// SQL activity of the current HTTP request, bound to the request thread by QueryCountingFilter.
+// Code running outside a request (startup, schedulers, async exports) sees no current stats and is not counted.
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern IN_LIST = Pattern.compile("in\\s*\\((\\s*\\?\\s*,)*\\s*\\?\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private String handler = "none";
+    private int statements;
+    private int connections;
+    private int entityLoads;
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        statementShapes.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    void recordConnection() {
+        connections++;
+    }
+
+    void recordEntityLoad() {
+        entityLoads++;
+    }
+
+    void setHandler(String handler) {
+        this.handler = handler;
+    }
+
+    public String handler() {
+        return handler;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public int connections() {
+        return connections;
+    }
+
+    public int entityLoads() {
+        return entityLoads;
+    }
+
+    public Map<String, Integer> statementShapes() {
+        return statementShapes;
+    }
+
+    // Same query with a different IN-list length or formatting counts as the same shape
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+}
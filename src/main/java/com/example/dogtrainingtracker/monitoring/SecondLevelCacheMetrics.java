@@ -0,0 +1,51 @@
+package com.example.dogtrainingtracker.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+// Publishes the JCache statistics of every second-level cache region (gets, puts, evictions)
+// and a cache.hit.ratio gauge per region
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        var regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory jcache)) {
+            return;
+        }
+
+        CacheManager cacheManager = jcache.getCacheManager();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            JCacheMetrics.monitor(registry, cache, Tags.empty());
+
+            FunctionCounter hits = registry.find("cache.gets").tags("cache", name, "result", "hit").functionCounter();
+            FunctionCounter misses = registry.find("cache.gets").tags("cache", name, "result", "miss").functionCounter();
+            if (hits != null && misses != null) {
+                Gauge.builder("cache.hit.ratio", () -> {
+                            double total = hits.count() + misses.count();
+                            return total == 0 ? 0 : hits.count() / total;
+                        })
+                        .tag("cache", name)
+                        .description("Share of second-level cache lookups answered from the region")
+                        .register(registry);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.dogtrainingtracker.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.List;
+
+// Set-based deletes for soft-deleted dogs. Plain JDBC: the entity restrictions would hide these rows
+// from JPQL, and native Hibernate queries would invalidate every second-level cache region.
+// Each method joins the surrounding transaction; callers keep that transaction to one chunk.
+@Repository
+public class DogPurgeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DogPurgeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Integer> findDeletedDogIds(int limit) {
+        return jdbcTemplate.queryForList(
+                "select id from dog where deleted = true order by id limit ?", Integer.class, limit);
+    }
+
+    // Deletes at most chunkSize of the dog's trainings by primary key and returns their ids
+    public List<Integer> deleteTrainingChunk(Integer dogId, int chunkSize) {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "select id from dog_training where dog_id = ? order by id limit ?", Integer.class, dogId, chunkSize);
+        if (!ids.isEmpty()) {
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            jdbcTemplate.update("delete from dog_training where id in (" + placeholders + ")", ids.toArray());
+        }
+        return ids;
+    }
+
+    // Removes the dog row, with its summaries and archived trainings, once no training refers to it;
+    // false if one is still there
+    public boolean deleteDogIfEmpty(Integer dogId) {
+        jdbcTemplate.update("delete from training_summary where dog_id = ?", dogId);
+        jdbcTemplate.update("delete from training_archive_ingest where dog_id = ?", dogId);
+        jdbcTemplate.update("delete from training_archive where dog_id = ?", dogId);
+        return jdbcTemplate.update("""
+                delete from dog
+                where id = ? and deleted = true
+                  and not exists (select 1 from dog_training t where t.dog_id = ?)
+                """, dogId, dogId) == 1;
+    }
+}
@@ -1,12 +1,75 @@
 package com.example.dogtrainingtracker.repository;
 
+import com.example.dogtrainingtracker.dto.DogResponseDTO;
+import com.example.dogtrainingtracker.dto.DogVersionDTO;
 import com.example.dogtrainingtracker.entities.Dog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface DogRepository extends JpaRepository <Dog, Integer>{
+public interface DogRepository extends JpaRepository <Dog, Integer>, JpaSpecificationExecutor<Dog> {
     List<Dog> findByOwnerId(Integer ownerId);
     Optional<Dog> findByIdAndOwnerId(Integer id, Integer ownerId);
+    boolean existsByIdAndOwnerId(Integer id, Integer ownerId);
+
+    // Ids of the given dogs that exist, optionally restricted to one owner, for one-query access checks
+    @Query("select d.id from Dog d where d.id in :ids")
+    Set<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select d.id from Dog d where d.owner.id = :ownerId")
+    Set<Integer> findIdsByOwnerId(@Param("ownerId") Integer ownerId);
+
+    @Query("select d.id from Dog d where d.id in :ids and d.owner.id = :ownerId")
+    Set<Integer> findIdsByIdInAndOwnerId(@Param("ids") Collection<Integer> ids, @Param("ownerId") Integer ownerId);
+
+    // DTO projections, select exactly the DogResponseDTO columns in one query without hydrating entities
+    String DOG_DTO = "select new com.example.dogtrainingtracker.dto.DogResponseDTO("
+            + "d.id, d.name, d.breed, d.birthdate, o.username) from Dog d left join d.owner o ";
+
+    @Query(DOG_DTO + "order by d.id")
+    List<DogResponseDTO> findAllDtos();
+
+    @Query(DOG_DTO + "where d.owner.id = :ownerId order by d.id")
+    List<DogResponseDTO> findDtosByOwnerId(@Param("ownerId") Integer ownerId);
+
+    @Query(DOG_DTO + "where d.id = :id")
+    Optional<DogResponseDTO> findDtoById(@Param("id") Integer id);
+
+    @Query(DOG_DTO + "where d.id = :id and d.owner.id = :ownerId")
+    Optional<DogResponseDTO> findDtoByIdAndOwnerId(@Param("id") Integer id, @Param("ownerId") Integer ownerId);
+
+    // Keyset pages ordered by id, seeking past the last id of the previous page
+    @Query(DOG_DTO + "where d.id > :afterId order by d.id")
+    List<DogResponseDTO> findPageAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    @Query(DOG_DTO + "where d.owner.id = :ownerId and d.id > :afterId order by d.id")
+    List<DogResponseDTO> findPageByOwnerIdAfter(@Param("ownerId") Integer ownerId, @Param("afterId") Integer afterId, Limit limit);
+
+    // Version columns only, by primary key, for conditional GETs
+    String DOG_VERSION = "select new com.example.dogtrainingtracker.dto.DogVersionDTO("
+            + "d.id, d.version, d.lastModified, d.trainingsVersion) from Dog d ";
+
+    @Query(DOG_VERSION + "where d.id = :id")
+    Optional<DogVersionDTO> findVersionById(@Param("id") Integer id);
+
+    @Query(DOG_VERSION + "where d.id = :id and d.owner.id = :ownerId")
+    Optional<DogVersionDTO> findVersionByIdAndOwnerId(@Param("id") Integer id, @Param("ownerId") Integer ownerId);
+
+    // Bulk update, leaves the dog's own @Version alone. Native with its own query space:
+    // a JPQL bulk update on Dog would evict the whole "dog" second-level cache region on every training write.
+    @Modifying
+    @Query(value = "update dog set trainings_version = trainings_version + 1 where id in (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "dog_trainings_version"))
+    int incrementTrainingsVersion(@Param("ids") Collection<Integer> ids);
 }
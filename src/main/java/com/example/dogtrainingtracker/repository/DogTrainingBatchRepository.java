@@ -0,0 +1,83 @@
+package com.example.dogtrainingtracker.repository;
+
+import com.example.dogtrainingtracker.entities.DogTraining;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// JDBC batched inserts for dog_training. Hibernate cannot batch inserts for IDENTITY ids,
+// so bulk writes go through JdbcTemplate. With rewriteBatchedStatements the MySQL driver
+// sends each chunk as multi-row INSERTs. Joins the surrounding JPA transaction.
+@Repository
+public class DogTrainingBatchRepository {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String INSERT_SQL = """
+            insert into dog_training (activity, location, training_date, duration_minutes, notes, dog_id, created_at, last_modified, ingest_id)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DogTrainingBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Inserts the trainings and sets their generated ids; dog must be set and createdAt is filled in if missing
+    public void insertAll(List<DogTraining> trainings) {
+        LocalDateTime now = LocalDateTime.now();
+        for (DogTraining training : trainings) {
+            if (training.getCreatedAt() == null) {
+                training.setCreatedAt(now);
+            }
+            training.setLastModified(training.getCreatedAt());
+        }
+        for (int from = 0; from < trainings.size(); from += CHUNK_SIZE) {
+            insertChunk(trainings.subList(from, Math.min(from + CHUNK_SIZE, trainings.size())));
+        }
+    }
+
+    private void insertChunk(List<DogTraining> chunk) {
+        KeyHolder keys = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        DogTraining training = chunk.get(i);
+                        ps.setString(1, training.getActivity());
+                        ps.setString(2, training.getLocation());
+                        ps.setObject(3, training.getTrainingDate());
+                        ps.setInt(4, training.getDurationMinutes());
+                        ps.setString(5, training.getNotes());
+                        ps.setInt(6, training.getDog().getId());
+                        ps.setObject(7, training.getCreatedAt());
+                        ps.setObject(8, training.getLastModified());
+                        ps.setString(9, training.getIngestId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < chunk.size(); i++) {
+            Number id = (Number) generated.get(i).values().iterator().next();
+            chunk.get(i).setId(id.intValue());
+        }
+    }
+}
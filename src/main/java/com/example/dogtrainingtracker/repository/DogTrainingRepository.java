@@ -1,15 +1,143 @@
 package com.example.dogtrainingtracker.repository;
 
+import com.example.dogtrainingtracker.dto.DailyTrainingTotalDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
 import com.example.dogtrainingtracker.entities.DogTraining;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface DogTrainingRepository extends JpaRepository<DogTraining, Integer> {
+public interface DogTrainingRepository extends JpaRepository<DogTraining, Integer>, JpaSpecificationExecutor<DogTraining> {
 
     List<DogTraining> findByDogId(Integer dogId);
     List<DogTraining> findByDogIdAndActivity(Integer dogId, String activity);
     List<DogTraining> findByDogOwnerId(Integer ownerId);
     Optional<DogTraining> findByIdAndDogOwnerId(Integer id, Integer ownerId);
+
+    // DTO projection, select exactly the DogTrainingResponseDTO columns; t.dog.id reads the FK without a join
+    String TRAINING_DTO = "select new com.example.dogtrainingtracker.dto.DogTrainingResponseDTO("
+            + "t.id, t.activity, t.location, t.trainingDate, t.durationMinutes, t.notes, t.dog.id, t.createdAt) "
+            + "from DogTraining t ";
+
+    // Seek predicate for keyset pages ordered by (trainingDate, id); the leading >= keeps it an index range scan.
+    // :to closes the range (PageCursor.orLast for open-ended pages), a range start is folded into the cursor,
+    // so date-range pages read exactly the index range [from, to] and prune partitions outside it
+    String AFTER_CURSOR = "t.trainingDate >= :date and (t.trainingDate > :date or t.id > :id) and t.trainingDate <= :to ";
+    String CURSOR_ORDER = "order by t.trainingDate, t.id";
+
+    // Mirror image for newest-first pages, read as a backward scan of the same indexes
+    String BEFORE_CURSOR = "t.trainingDate <= :date and (t.trainingDate < :date or t.id < :id) ";
+    String NEWEST_FIRST_ORDER = "order by t.trainingDate desc, t.id desc";
+
+    // One dog's trainings, empty unless the dog belongs to :ownerId (null = admin, any owner).
+    // The dog_id predicate drives the index; the owner check only reads that one dog row.
+    String OF_ACCESSIBLE_DOG = "t.dog.id = :dogId and (:ownerId is null or t.dog.owner.id = :ownerId) ";
+
+    // Every stored training with one of these ingest ids, whether its dog is soft-deleted or it was archived.
+    // Native, so the @SQLRestriction that hides deleted dogs' trainings does not apply
+    @Query(value = """
+            select ingest_id from dog_training where ingest_id in (:ingestIds)
+            union all
+            select ingest_id from training_archive_ingest where ingest_id in (:ingestIds)
+            """, nativeQuery = true)
+    Set<String> findStoredIngestIds(@Param("ingestIds") Collection<String> ingestIds);
+
+    @Query(TRAINING_DTO + "where t.ingestId = :ingestId")
+    Optional<DogTrainingResponseDTO> findDtoByIngestId(@Param("ingestId") String ingestId);
+
+    @Query(TRAINING_DTO + "where t.ingestId = :ingestId and t.dog.owner.id = :ownerId")
+    Optional<DogTrainingResponseDTO> findDtoByIngestIdAndDogOwnerId(@Param("ingestId") String ingestId,
+                                                                    @Param("ownerId") Integer ownerId);
+
+    @Query(TRAINING_DTO + "where t.id in :ids")
+    List<DogTrainingResponseDTO> findDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(TRAINING_DTO + "where " + AFTER_CURSOR + CURSOR_ORDER)
+    List<DogTrainingResponseDTO> findPageAfter(@Param("date") LocalDate date,
+                                               @Param("id") Integer id,
+                                               @Param("to") LocalDate to,
+                                               Limit limit);
+
+    @Query(TRAINING_DTO + "where t.dog.owner.id = :ownerId and " + AFTER_CURSOR + CURSOR_ORDER)
+    List<DogTrainingResponseDTO> findPageByDogOwnerIdAfter(@Param("ownerId") Integer ownerId,
+                                                           @Param("date") LocalDate date,
+                                                           @Param("id") Integer id,
+                                                           @Param("to") LocalDate to,
+                                                           Limit limit);
+
+    @Query(TRAINING_DTO + "where " + OF_ACCESSIBLE_DOG + "and " + AFTER_CURSOR + CURSOR_ORDER)
+    List<DogTrainingResponseDTO> findPageByDogIdAfter(@Param("dogId") Integer dogId,
+                                                      @Param("ownerId") Integer ownerId,
+                                                      @Param("date") LocalDate date,
+                                                      @Param("id") Integer id,
+                                                      @Param("to") LocalDate to,
+                                                      Limit limit);
+
+    @Query(TRAINING_DTO + "where " + OF_ACCESSIBLE_DOG + "and " + BEFORE_CURSOR + NEWEST_FIRST_ORDER)
+    List<DogTrainingResponseDTO> findPageByDogIdBefore(@Param("dogId") Integer dogId,
+                                                       @Param("ownerId") Integer ownerId,
+                                                       @Param("date") LocalDate date,
+                                                       @Param("id") Integer id,
+                                                       Limit limit);
+
+    @Query(TRAINING_DTO + "where " + OF_ACCESSIBLE_DOG + "and t.activity = :activity and " + AFTER_CURSOR + CURSOR_ORDER)
+    List<DogTrainingResponseDTO> findPageByDogIdAndActivityAfter(@Param("dogId") Integer dogId,
+                                                                 @Param("ownerId") Integer ownerId,
+                                                                 @Param("activity") String activity,
+                                                                 @Param("date") LocalDate date,
+                                                                 @Param("id") Integer id,
+                                                                 @Param("to") LocalDate to,
+                                                                 Limit limit);
+
+    // Streaming reads for export; must be consumed inside a read-only transaction.
+    // Rows are fetched from the server in chunks of EXPORT_FETCH_SIZE and are never managed entities.
+    int EXPORT_FETCH_SIZE = 1000;
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TRAINING_DTO + CURSOR_ORDER)
+    Stream<DogTrainingResponseDTO> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TRAINING_DTO + "where t.dog.owner.id = :ownerId " + CURSOR_ORDER)
+    Stream<DogTrainingResponseDTO> streamByDogOwnerId(@Param("ownerId") Integer ownerId);
+
+    // 0 when there are no trainings, like TrainingSearchIndex.maxTrainingId
+    @Query("select coalesce(max(t.id), 0) from DogTraining t")
+    int findMaxId();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TRAINING_DTO + "where t.id > :afterId order by t.id")
+    Stream<DogTrainingResponseDTO> streamAfterId(@Param("afterId") Integer afterId);
+
+    // Per-day totals ordered by (dog, activity, day), streamed when rebuilding the summary table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("""
+            select new com.example.dogtrainingtracker.dto.DailyTrainingTotalDTO(
+                t.dog.id, t.activity, t.trainingDate, count(t), sum(t.durationMinutes))
+            from DogTraining t
+            group by t.dog.id, t.activity, t.trainingDate
+            order by t.dog.id, t.activity, t.trainingDate
+            """)
+    Stream<DailyTrainingTotalDTO> streamDailyTotals();
 }
@@ -0,0 +1,192 @@
+package com.example.dogtrainingtracker.repository;
+
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileReadFeature;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// The training_archive table: append-only segments of one dog's trainings, each a format version byte
+// followed by a deflated Smile list of StoredTraining. Plain JDBC like DogPurgeRepository, since rows
+// move between tables in bulk. Each method joins the surrounding transaction.
+@Repository
+public class TrainingArchiveRepository {
+
+    // Only the segment bounds; the payload is read when a segment is actually needed
+    public record Segment(long id, int dogId, LocalDate firstDate, LocalDate lastDate) {
+    }
+
+    // What a segment stores per training; the dog id is a column of the segment. This is a storage
+    // format, kept apart from the API DTO so API changes cannot break rows that are already written
+    public record StoredTraining(int id, String activity, String location, LocalDate trainingDate,
+                                 int durationMinutes, String notes, LocalDateTime createdAt) {
+    }
+
+    // Bumped, with a decoder for the old value kept, whenever the stored layout or mapper settings change
+    private static final int FORMAT_VERSION = 1;
+
+    // Private and fully pinned, unlike the API's Smile mapper, so existing segments stay readable
+    private static final SmileMapper SEGMENT_MAPPER = SmileMapper.builder()
+            .configure(SmileWriteFeature.WRITE_HEADER, true)
+            .configure(SmileWriteFeature.CHECK_SHARED_NAMES, true)
+            .configure(SmileWriteFeature.CHECK_SHARED_STRING_VALUES, false)
+            .configure(SmileWriteFeature.ENCODE_BINARY_AS_7BIT, false)
+            .configure(SmileReadFeature.REQUIRE_HEADER, true)
+            .configure(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS, true)
+            .configure(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS, false)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
+            .configure(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES, true)
+            .build();
+    private static final TypeReference<List<StoredTraining>> ROWS = new TypeReference<>() {
+    };
+
+    private static final RowMapper<Segment> SEGMENT = (rs, rowNum) -> new Segment(
+            rs.getLong("id"), rs.getInt("dog_id"),
+            rs.getObject("first_date", LocalDate.class), rs.getObject("last_date", LocalDate.class));
+
+    private static final RowMapper<DogTrainingResponseDTO> TRAINING = (rs, rowNum) -> new DogTrainingResponseDTO(
+            rs.getInt("id"), rs.getString("activity"), rs.getString("location"),
+            rs.getObject("training_date", LocalDate.class), rs.getInt("duration_minutes"), rs.getString("notes"),
+            rs.getInt("dog_id"), rs.getObject("created_at", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrainingArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Dogs, not deleted, that still have trainings in dog_training dated before cutoff
+    public List<Integer> findDogIdsWithTrainingsBefore(LocalDate cutoff, int limit) {
+        return jdbcTemplate.queryForList("""
+                select distinct t.dog_id from dog_training t join dog d on d.id = t.dog_id
+                where t.training_date < ? and d.deleted = false
+                limit ?
+                """, Integer.class, cutoff, limit);
+    }
+
+    // Moves at most limit of the dog's trainings dated before cutoff, oldest first, into one new segment
+    // and returns them
+    public List<DogTrainingResponseDTO> moveToArchive(Integer dogId, LocalDate cutoff, int limit) {
+        List<DogTrainingResponseDTO> rows = jdbcTemplate.query("""
+                select id, activity, location, training_date, duration_minutes, notes, dog_id, created_at
+                from dog_training
+                where dog_id = ? and training_date < ?
+                order by training_date, id
+                limit ?
+                """, TRAINING, dogId, cutoff, limit);
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        jdbcTemplate.update("""
+                        insert into training_archive (dog_id, first_date, last_date, row_count, payload, created_at)
+                        values (?, ?, ?, ?, ?, ?)
+                        """, dogId, rows.getFirst().trainingDate(), rows.getLast().trainingDate(), rows.size(),
+                encode(rows), LocalDateTime.now());
+
+        Object[] ids = rows.stream().map(DogTrainingResponseDTO::id).toArray();
+        String placeholders = String.join(", ", Collections.nCopies(ids.length, "?"));
+        // Segments do not store ingest ids; kept aside so a replayed write-behind journal still sees them
+        jdbcTemplate.update("""
+                insert into training_archive_ingest (ingest_id, dog_id)
+                select ingest_id, dog_id from dog_training where ingest_id is not null and id in (%s)
+                """.formatted(placeholders), ids);
+        jdbcTemplate.update("delete from dog_training where id in (" + placeholders + ")", ids);
+        return rows;
+    }
+
+    // Segments of the dog that may hold trainings between from and to, by first date
+    public List<Segment> findSegments(Integer dogId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                select id, dog_id, first_date, last_date from training_archive
+                where dog_id = ? and first_date <= ? and last_date >= ?
+                order by first_date, id
+                """, SEGMENT, dogId, to, from);
+    }
+
+    // Every segment of the owner's dogs, skipping deleted dogs
+    public List<Segment> findSegmentsByOwnerId(Integer ownerId) {
+        return jdbcTemplate.query("""
+                select a.id, a.dog_id, a.first_date, a.last_date
+                from training_archive a join dog d on d.id = a.dog_id
+                where d.deleted = false and d.owner_id = ?
+                order by a.dog_id, a.first_date, a.id
+                """, SEGMENT, ownerId);
+    }
+
+    public List<Segment> findAllSegments() {
+        return jdbcTemplate.query("""
+                select a.id, a.dog_id, a.first_date, a.last_date
+                from training_archive a join dog d on d.id = a.dog_id
+                where d.deleted = false
+                order by a.dog_id, a.first_date, a.id
+                """, SEGMENT);
+    }
+
+    public List<DogTrainingResponseDTO> loadSegment(long segmentId) {
+        return jdbcTemplate.queryForObject("select dog_id, payload from training_archive where id = ?",
+                (rs, rowNum) -> decode(rs.getInt("dog_id"), rs.getBytes("payload")), segmentId);
+    }
+
+    public LocalDate findNewestArchivedDate() {
+        return jdbcTemplate.queryForObject("select max(last_date) from training_archive", LocalDate.class);
+    }
+
+    // Cold data is written once and read rarely, so it gets the slowest, smallest deflate level
+    private static byte[] encode(List<DogTrainingResponseDTO> rows) {
+        List<StoredTraining> stored = rows.stream()
+                .map(row -> new StoredTraining(row.id(), row.activity(), row.location(), row.trainingDate(),
+                        row.durationMinutes(), row.notes(), row.createdAt()))
+                .toList();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(FORMAT_VERSION);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            SEGMENT_MAPPER.writeValue(out, stored);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<DogTrainingResponseDTO> decode(int dogId, byte[] payload) {
+        if (payload[0] != FORMAT_VERSION) {
+            throw new IllegalStateException("Unknown training archive segment format " + payload[0]);
+        }
+        List<StoredTraining> stored;
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1))) {
+            stored = SEGMENT_MAPPER.readValue(in, ROWS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<DogTrainingResponseDTO> rows = new ArrayList<>(stored.size());
+        for (StoredTraining training : stored) {
+            rows.add(new DogTrainingResponseDTO(training.id(), training.activity(), training.location(),
+                    training.trainingDate(), training.durationMinutes(), training.notes(), dogId,
+                    training.createdAt(), true));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.dogtrainingtracker.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.StringJoiner;
+
+// MySQL range partitioning of dog_training by training_date, one partition per month named pYYYYMM
+// plus p_future for anything later. The date predicates of the training queries let MySQL prune
+// to the months they cover, and a whole month can be dropped in O(1) with
+// "alter table dog_training drop partition pYYYYMM". Used by V6 and on startup.
+@Repository
+public class TrainingPartitionRepository {
+
+    private static final String FUTURE = "p_future";
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrainingPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isPartitioned() {
+        Integer partitions = jdbcTemplate.queryForObject("""
+                select count(*) from information_schema.partitions
+                where table_schema = database() and table_name = 'dog_training' and partition_name is not null
+                """, Integer.class);
+        return partitions != null && partitions > 0;
+    }
+
+    // Months that have their own partition, oldest first
+    public List<YearMonth> findMonths() {
+        return jdbcTemplate.queryForList("""
+                        select partition_name from information_schema.partitions
+                        where table_schema = database() and table_name = 'dog_training' and partition_name <> ?
+                        order by partition_ordinal_position
+                        """, String.class, FUTURE).stream()
+                .map(name -> YearMonth.parse(name, MONTH_NAME))
+                .toList();
+    }
+
+    // Rebuilds the table with one partition per month from first to last; the first also holds anything older.
+    // MySQL wants the partitioning column in every unique key and allows no foreign keys on partitioned
+    // tables, so the primary key becomes (id, training_date), ingest ids are unique per training date
+    // (a retried ingest carries the same date) and DogPurger alone keeps trainings from outliving their dog.
+    public void partitionByMonth(YearMonth first, YearMonth last) {
+        for (String foreignKey : findDogForeignKeys()) {
+            jdbcTemplate.execute("alter table dog_training drop foreign key `" + foreignKey + "`");
+        }
+        jdbcTemplate.execute("alter table dog_training drop primary key, add primary key (id, training_date)");
+        jdbcTemplate.execute("""
+                alter table dog_training drop index uk_dog_training_ingest_id,
+                    add unique index uk_dog_training_ingest_id (ingest_id, training_date)
+                """);
+        jdbcTemplate.execute("alter table dog_training partition by range columns (training_date) ("
+                + definitions(first, last) + ")");
+    }
+
+    // Foreign keys from dog_training.dog_id to dog under their actual names. V1 calls it fk_dog_training_dog,
+    // but a schema created or repaired by hand may use another name
+    private List<String> findDogForeignKeys() {
+        return jdbcTemplate.queryForList("""
+                select k.constraint_name
+                from information_schema.key_column_usage k
+                join information_schema.referential_constraints r
+                    on r.constraint_schema = k.constraint_schema and r.constraint_name = k.constraint_name
+                where k.table_schema = database() and k.table_name = 'dog_training' and k.column_name = 'dog_id'
+                    and r.referenced_table_name = 'dog'
+                """, String.class);
+    }
+
+    // Splits months up to last off p_future; only metadata work while p_future is still empty
+    public void addMonthsThrough(YearMonth last) {
+        YearMonth next = findMonths().getLast().plusMonths(1);
+        if (next.isAfter(last)) {
+            return;
+        }
+        jdbcTemplate.execute("alter table dog_training reorganize partition " + FUTURE + " into ("
+                + definitions(next, last) + ")");
+    }
+
+    private static String definitions(YearMonth first, YearMonth last) {
+        StringJoiner partitions = new StringJoiner(", ");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            partitions.add("partition " + month.format(MONTH_NAME)
+                    + " values less than ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        partitions.add("partition " + FUTURE + " values less than (maxvalue)");
+        return partitions.toString();
+    }
+}
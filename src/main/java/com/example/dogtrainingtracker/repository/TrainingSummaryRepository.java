@@ -0,0 +1,79 @@
+package com.example.dogtrainingtracker.repository;
+
+import com.example.dogtrainingtracker.dto.TrainingStatsDTO;
+import com.example.dogtrainingtracker.entities.TrainingPeriod;
+import com.example.dogtrainingtracker.entities.TrainingSummary;
+import com.example.dogtrainingtracker.entities.TrainingSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TrainingSummaryRepository extends JpaRepository<TrainingSummary, TrainingSummaryId> {
+
+    // Atomically adds a delta to one summary row, creating it if missing; negative deltas remove trainings
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into training_summary (dog_id, period_type, period_start, activity, session_count, total_minutes)
+            values (:dogId, :periodType, :periodStart, :activity, :sessions, :minutes)
+            on duplicate key update
+                session_count = session_count + :sessions,
+                total_minutes = total_minutes + :minutes
+            """)
+    void addDelta(@Param("dogId") Integer dogId,
+                  @Param("periodType") String periodType,
+                  @Param("periodStart") LocalDate periodStart,
+                  @Param("activity") String activity,
+                  @Param("sessions") long sessions,
+                  @Param("minutes") long minutes);
+
+    @Modifying
+    @Query("delete from TrainingSummary s where s.id.dogId = :dogId and s.sessionCount <= 0")
+    void deleteEmptyByDogId(@Param("dogId") Integer dogId);
+
+    @Modifying
+    @Query("delete from TrainingSummary s where s.id.dogId = :dogId")
+    void deleteByDogId(@Param("dogId") Integer dogId);
+
+    @Query("""
+            select new com.example.dogtrainingtracker.dto.TrainingStatsDTO(
+                s.id.activity, s.id.periodStart, s.sessionCount, s.totalMinutes)
+            from TrainingSummary s
+            where s.id.dogId = :dogId and s.id.periodType = :period
+              and s.id.periodStart between :from and :to
+            order by s.id.periodStart, s.id.activity
+            """)
+    List<TrainingStatsDTO> findStatsByDogId(@Param("dogId") Integer dogId,
+                                            @Param("period") TrainingPeriod period,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.example.dogtrainingtracker.dto.TrainingStatsDTO(
+                s.id.activity, s.id.periodStart, sum(s.sessionCount), sum(s.totalMinutes))
+            from TrainingSummary s join Dog d on d.id = s.id.dogId
+            where d.owner.id = :ownerId and s.id.periodType = :period
+              and s.id.periodStart between :from and :to
+            group by s.id.periodStart, s.id.activity
+            order by s.id.periodStart, s.id.activity
+            """)
+    List<TrainingStatsDTO> findStatsByOwnerId(@Param("ownerId") Integer ownerId,
+                                              @Param("period") TrainingPeriod period,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.example.dogtrainingtracker.dto.TrainingStatsDTO(
+                s.id.activity, s.id.periodStart, sum(s.sessionCount), sum(s.totalMinutes))
+            from TrainingSummary s
+            where s.id.periodType = :period and s.id.periodStart between :from and :to
+            group by s.id.periodStart, s.id.activity
+            order by s.id.periodStart, s.id.activity
+            """)
+    List<TrainingStatsDTO> findStatsForAllDogs(@Param("period") TrainingPeriod period,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+}
@@ -0,0 +1,239 @@
+package com.example.dogtrainingtracker.search;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// In-memory inverted index from terms in notes, activity and location to training ids.
+// Each training also keeps its dog id, so results can be restricted to the caller's dogs, and its terms,
+// so it can be removed without a rescan. The index can be saved to and loaded from a local snapshot file.
+@Component
+public class TrainingSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingSearchIndex.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x54534958; // "TSIX"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Letters and digits in any script, so "spåret" and "hinder" stay whole words
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record Document(int dogId, String[] terms) {
+    }
+
+    private final Path snapshotFile;
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TrainingSearchIndex(@Value("${tracker.search.snapshot-file:}") String snapshotFile) {
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+    }
+
+    // Lower-cased distinct words of the given texts; null texts are skipped
+    public static Set<String> tokenize(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String term : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    // Adds or replaces one training
+    public void put(int trainingId, int dogId, String activity, String location, String notes) {
+        String[] terms = tokenize(activity, location, notes).toArray(String[]::new);
+        lock.writeLock().lock();
+        try {
+            removeLocked(trainingId);
+            documents.put(trainingId, new Document(dogId, terms));
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new HashSet<>()).add(trainingId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<Integer> trainingIds) {
+        lock.writeLock().lock();
+        try {
+            trainingIds.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the trainings containing every term whose dog passes dogFilter, highest id first
+    public List<Integer> search(Set<String> terms, IntPredicate dogFilter, int limit) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Set<Integer>> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Set<Integer> ids = postings.get(term);
+                if (ids == null) {
+                    return List.of();
+                }
+                matches.add(ids);
+            }
+            // Walk the rarest term and probe the others
+            matches.sort(Comparator.comparingInt(Set::size));
+            List<Set<Integer>> others = matches.subList(1, matches.size());
+
+            return matches.getFirst().stream()
+                    .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                    .filter(id -> dogFilter.test(documents.get(id).dogId()))
+                    .sorted(Comparator.reverseOrder())
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int maxTrainingId() {
+        lock.readLock().lock();
+        try {
+            return documents.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replaces the index with the snapshot file; false when there is no usable snapshot
+    public boolean loadSnapshot() {
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(snapshotFile))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring search index snapshot {} with an unknown format", snapshotFile);
+                return false;
+            }
+            postings.clear();
+            documents.clear();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int trainingId = in.readInt();
+                int dogId = in.readInt();
+                String[] terms = new String[in.readInt()];
+                for (int j = 0; j < terms.length; j++) {
+                    terms[j] = in.readUTF();
+                    postings.computeIfAbsent(terms[j], t -> new HashSet<>()).add(trainingId);
+                }
+                documents.put(trainingId, new Document(dogId, terms));
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not read search index snapshot {}", snapshotFile, e);
+            postings.clear();
+            documents.clear();
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Writes the index to a temporary file and moves it over the snapshot, so a crash never leaves half a file
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, snapshotFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(documents.size());
+                for (Map.Entry<Integer, Document> entry : documents.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeInt(entry.getValue().dogId());
+                    out.writeInt(entry.getValue().terms().length);
+                    for (String term : entry.getValue().terms()) {
+                        out.writeUTF(term);
+                    }
+                }
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write search index snapshot {}", snapshotFile, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(int trainingId) {
+        Document document = documents.remove(trainingId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Set<Integer> ids = postings.get(term);
+            if (ids != null && ids.remove(trainingId) && ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.dogtrainingtracker.security;
+
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.entities.DogTraining;
+import org.springframework.data.jpa.domain.Specification;
+
+// Row-level access rule as query predicates: admins may touch every row, users only rows of their own dogs.
+// Combined with the lookup itself, a row the user may not see is simply not found, without being loaded.
+// JPQL queries apply the same rule with :ownerId bound to CurrentUser.ownerScope().
+public final class AccessSpecifications {
+
+    private AccessSpecifications() {
+    }
+
+    public static Specification<Dog> dogWithId(Integer id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Dog> dogsAccessibleBy(CurrentUser user) {
+        if (user.isAdmin()) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> cb.equal(root.get("owner").get("id"), user.id());
+    }
+
+    public static Specification<DogTraining> trainingWithId(Integer id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<DogTraining> trainingsAccessibleBy(CurrentUser user) {
+        if (user.isAdmin()) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> cb.equal(root.get("dog").get("owner").get("id"), user.id());
+    }
+}
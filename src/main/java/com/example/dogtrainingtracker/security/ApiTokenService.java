@@ -0,0 +1,171 @@
+package com.example.dogtrainingtracker.security;
+
+import com.example.dogtrainingtracker.dto.TokenResponseDTO;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+// Issues and checks the HS256-signed bearer tokens of the REST API.
+// Access tokens carry user id and role, so a request is authenticated from the token alone; refresh tokens
+// are single use and exchanged for a new pair. Revocation goes through the in-memory TokenDenyList.
+@Component
+public class ApiTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiTokenService.class);
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TYPE = "typ";
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+
+    private final TokenDenyList denyList;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final JwtEncoder encoder;
+    private final JwtDecoder accessTokenDecoder;
+    private final JwtDecoder refreshTokenDecoder;
+
+    public ApiTokenService(TokenDenyList denyList,
+                           @Value("${tracker.api-token.secret:}") String secret,
+                           @Value("${tracker.api-token.ttl:15m}") Duration accessTtl,
+                           @Value("${tracker.api-token.refresh-ttl:8h}") Duration refreshTtl) {
+        this.denyList = denyList;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+
+        SecretKey key = new SecretKeySpec(keyBytes(secret), "HmacSHA256");
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        this.accessTokenDecoder = decoder(key, ACCESS);
+        this.refreshTokenDecoder = decoder(key, REFRESH);
+    }
+
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("tracker.api-token.secret is not set, using a random key: API tokens end with this process "
+                    + "and are not accepted by other nodes");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] decoded = Base64.getDecoder().decode(secret);
+        if (decoded.length < 32) {
+            throw new IllegalStateException("tracker.api-token.secret must be at least 32 bytes, base64 encoded");
+        }
+        return decoded;
+    }
+
+    private JwtDecoder decoder(SecretKey key, String type) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefault(), ofType(type), notRevoked()));
+        return decoder;
+    }
+
+    private static OAuth2TokenValidator<Jwt> ofType(String type) {
+        return jwt -> type.equals(jwt.getClaimAsString(CLAIM_TYPE))
+                ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Not an " + type + " token", null));
+    }
+
+    private OAuth2TokenValidator<Jwt> notRevoked() {
+        return jwt -> denyList.isRevoked(jwt.getId(), jwt.getSubject(), jwt.getIssuedAt())
+                ? OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Token has been revoked", null))
+                : OAuth2TokenValidatorResult.success();
+    }
+
+    // Used by the /api/** filter chain; checks signature, expiry, type and the deny-list, nothing else
+    public JwtDecoder accessTokenDecoder() {
+        return accessTokenDecoder;
+    }
+
+    public TokenResponseDTO issue(CurrentUser user) {
+        Instant now = Instant.now();
+        return new TokenResponseDTO(
+                encode(user, ACCESS, now, accessTtl),
+                encode(user, REFRESH, now, refreshTtl),
+                "Bearer",
+                accessTtl.toSeconds()
+        );
+    }
+
+    // Validates and uses up a refresh token, returning the user it was issued to. Decoding checks the
+    // deny-list too, but two concurrent redeems can both pass it; only the one that revokes the token wins
+    public String redeemRefreshToken(String refreshToken) {
+        Jwt jwt = decode(refreshTokenDecoder, refreshToken);
+        if (!denyList.revokeOnce(jwt.getId(), jwt.getExpiresAt())) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+        return jwt.getSubject();
+    }
+
+    // Revokes the caller's access token and, when given, a refresh token of the same user
+    public void revoke(Jwt accessToken, String refreshToken) {
+        denyList.revoke(accessToken.getId(), accessToken.getExpiresAt());
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            Jwt refresh = decode(refreshTokenDecoder, refreshToken);
+            if (refresh.getSubject().equals(accessToken.getSubject())) {
+                denyList.revoke(refresh.getId(), refresh.getExpiresAt());
+            }
+        }
+    }
+
+    // The user as recorded in the token, without a users lookup
+    public static CurrentUser currentUser(Jwt jwt) {
+        return new CurrentUser(
+                ((Number) jwt.getClaim(CLAIM_USER_ID)).intValue(),
+                jwt.getSubject(),
+                jwt.getClaimAsString(CLAIM_ROLE),
+                true
+        );
+    }
+
+    private String encode(CurrentUser user, String type, Instant now, Duration ttl) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(user.username())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(CLAIM_USER_ID, user.id())
+                .claim(CLAIM_ROLE, user.role())
+                .claim(CLAIM_TYPE, type)
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    private static Jwt decode(JwtDecoder decoder, String token) {
+        try {
+            return decoder.decode(token);
+        } catch (JwtException ex) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.dogtrainingtracker.security;
+
+import com.example.dogtrainingtracker.entities.User;
+
+// Id/role view of the authenticated user, cheap to cache and to pass around the services
+public record CurrentUser(
+        Integer id,
+        String username,
+        String role,
+        boolean enabled
+) {
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    public CurrentUser(User entity) {
+        this(
+                entity.getId(),
+                entity.getUsername(),
+                entity.getRole(),
+                entity.isEnabled()
+        );
+    }
+
+    public boolean isAdmin() {
+        return ROLE_ADMIN.equals(role);
+    }
+
+    // Owner id that restricts the user's queries, or null for admins who may read every owner's rows
+    public Integer ownerScope() {
+        return isAdmin() ? null : id;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.dogtrainingtracker.security;
+
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Resolves the authenticated principal to a CurrentUser without a users lookup on every call.
+// Entries are bounded by size and time, and evicted by UserCacheInvalidationListener when a user row changes.
+@Component
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+    private final Cache<String, CurrentUser> cache;
+
+    public CurrentUserResolver(UserRepository userRepository,
+                               @Value("${tracker.principal-cache.max-size:10000}") long maxSize,
+                               @Value("${tracker.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public CurrentUser resolve(Authentication auth) {
+        // API tokens carry id and role; they are revoked when the user row changes, see TokenDenyList
+        if (auth instanceof JwtAuthenticationToken token) {
+            return ApiTokenService.currentUser(token.getToken());
+        }
+        return resolve(auth.getName());
+    }
+
+    public CurrentUser resolve(String username) {
+        CurrentUser user = cache.get(username, name -> userRepository.findByUsername(name)
+                .map(CurrentUser::new)
+                .orElse(null));
+
+        if (user == null) {
+            throw new DisabledException("User not found: " + username);
+        }
+        // The session may outlive the account, so re-check the flag on every call
+        if (!user.enabled()) {
+            throw new DisabledException("User is disabled: " + username);
+        }
+        return user;
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
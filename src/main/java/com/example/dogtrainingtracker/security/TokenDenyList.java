@@ -0,0 +1,56 @@
+package com.example.dogtrainingtracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// Revoked API tokens, kept in memory only until they would have expired anyway.
+// Single tokens are denied by id (logout, used refresh tokens); all tokens of a user issued before a
+// point in time are denied after the user row changes, since the tokens carry the old role and flags.
+@Component
+public class TokenDenyList {
+
+    private final Cache<String, Instant> revokedIds;
+    private final Cache<String, Instant> revokedBefore;
+
+    public TokenDenyList(@Value("${tracker.api-token.refresh-ttl:8h}") Duration refreshTtl) {
+        this.revokedIds = Caffeine.newBuilder()
+                .expireAfter(Expiry.creating((String id, Instant expiresAt) -> {
+                    Duration remaining = Duration.between(Instant.now(), expiresAt);
+                    return remaining.isNegative() ? Duration.ZERO : remaining;
+                }))
+                .build();
+        // Refresh tokens live longest, after that no token from before the change can be valid
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfterWrite(refreshTtl)
+                .build();
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        revokedIds.put(tokenId, expiresAt);
+    }
+
+    // Revokes the token unless it already was; true for exactly one of any number of concurrent callers
+    public boolean revokeOnce(String tokenId, Instant expiresAt) {
+        return revokedIds.asMap().putIfAbsent(tokenId, expiresAt) == null;
+    }
+
+    // Token timestamps have second precision, so tokens issued within the same second are revoked too
+    public void revokeAllFor(String username) {
+        revokedBefore.put(username, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public boolean isRevoked(String tokenId, String username, Instant issuedAt) {
+        if (tokenId == null || revokedIds.getIfPresent(tokenId) != null) {
+            return true;
+        }
+        Instant cutOff = revokedBefore.getIfPresent(username);
+        return cutOff != null && (issuedAt == null || !issuedAt.isAfter(cutOff));
+    }
+}
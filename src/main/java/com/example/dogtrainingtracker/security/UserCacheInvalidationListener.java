@@ -0,0 +1,40 @@
+package com.example.dogtrainingtracker.security;
+
+import com.example.dogtrainingtracker.entities.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// JPA listener on User, instantiated by Hibernate through the Spring bean container.
+// Evicts the cached CurrentUser whenever the row changes, e.g. a new role or a disabled account,
+// and revokes the user's API tokens, which carry the old role.
+public class UserCacheInvalidationListener {
+
+    private final CurrentUserResolver currentUserResolver;
+    private final TokenDenyList tokenDenyList;
+
+    public UserCacheInvalidationListener(CurrentUserResolver currentUserResolver, TokenDenyList tokenDenyList) {
+        this.currentUserResolver = currentUserResolver;
+        this.tokenDenyList = tokenDenyList;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String username = user.getUsername();
+        currentUserResolver.evict(username);
+        tokenDenyList.revokeAllFor(username);
+
+        // Evict again after commit, so a concurrent request cannot re-cache the old row or get a token for it in between
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    currentUserResolver.evict(username);
+                    tokenDenyList.revokeAllFor(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.dogtrainingtracker.service;
+
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.repository.DogPurgeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Removes soft-deleted dogs in the background. Each chunk of at most chunk-size trainings is deleted
+// by primary key in its own short transaction, with chunk-pause between chunks, so even a dog with
+// tens of thousands of sessions never holds long locks. The dog row goes last, once nothing refers to it.
+// Woken after each dog delete commits, and every interval to pick up dogs left by a previous run.
+@Component
+public class DogPurger implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DogPurger.class);
+
+    private static final int DOGS_PER_ROUND = 100;
+
+    private final DogPurgeRepository purgeRepository;
+    private final TrainingSearchService searchService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration interval;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private Thread purgerThread;
+    private volatile boolean running;
+
+    public DogPurger(DogPurgeRepository purgeRepository, TrainingSearchService searchService,
+                     TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+                     @Value("${tracker.dog-purge.chunk-size:1000}") int chunkSize,
+                     @Value("${tracker.dog-purge.chunk-pause:20ms}") Duration chunkPause,
+                     @Value("${tracker.dog-purge.interval:1m}") Duration interval) {
+        this.purgeRepository = purgeRepository;
+        this.searchService = searchService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.interval = interval;
+    }
+
+    // Call inside the transaction that soft-deleted a dog
+    public void purgeAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeUp.release();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp.release();
+            }
+        });
+    }
+
+    // Purges every dog deleted so far and returns how many were removed; also used by tests
+    public int purgeDeletedDogs() throws InterruptedException {
+        int purged = 0;
+        while (running) {
+            List<Integer> dogIds = purgeRepository.findDeletedDogIds(DOGS_PER_ROUND);
+            int round = 0;
+            for (Integer dogId : dogIds) {
+                if (purge(dogId)) {
+                    round++;
+                }
+            }
+            purged += round;
+            // Dogs that could not be finished yet are retried on the next wake-up
+            if (dogIds.size() < DOGS_PER_ROUND || round == 0) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private boolean purge(Integer dogId) throws InterruptedException {
+        long trainings = 0;
+        while (running) {
+            List<Integer> removed = transactionTemplate.execute(status -> {
+                List<Integer> ids = purgeRepository.deleteTrainingChunk(dogId, chunkSize);
+                searchService.removeAfterCommit(ids);
+                return ids;
+            });
+            trainings += removed.size();
+            if (removed.size() < chunkSize) {
+                break;
+            }
+            Thread.sleep(chunkPause);
+        }
+        if (!running) {
+            return false;
+        }
+
+        // A training written just before the soft delete committed may still slip in; the next round gets it
+        Boolean deleted = transactionTemplate.execute(status -> purgeRepository.deleteDogIfEmpty(dogId));
+        if (Boolean.TRUE.equals(deleted)) {
+            entityManagerFactory.getCache().evict(Dog.class, dogId);
+            log.info("Purged deleted dog {} with {} trainings", dogId, trainings);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        purgerThread = Thread.ofPlatform().name("dog-purger").daemon().start(this::run);
+    }
+
+    // Stops between chunks rather than interrupting a statement; a half-purged dog stays hidden
+    // and is finished after the next start
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp.release();
+        try {
+            purgerThread.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                purgeDeletedDogs();
+                if (wakeUp.tryAcquire(interval.toNanos(), TimeUnit.NANOSECONDS)) {
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Purging deleted dogs failed, retrying in {}", interval, e);
+                try {
+                    wakeUp.tryAcquire(interval.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
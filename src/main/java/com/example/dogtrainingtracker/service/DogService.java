@@ -1,79 +1,121 @@
 package com.example.dogtrainingtracker.service;
 
+import com.example.dogtrainingtracker.dto.CursorPage;
 import com.example.dogtrainingtracker.dto.DogRequestDTO;
 import com.example.dogtrainingtracker.dto.DogResponseDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.DogVersionDTO;
+import com.example.dogtrainingtracker.dto.PageCursor;
 import com.example.dogtrainingtracker.entities.Dog;
-import com.example.dogtrainingtracker.entities.User;
 import com.example.dogtrainingtracker.errorhandling.DogNotFoundException;
 import com.example.dogtrainingtracker.repository.DogRepository;
 import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.security.CurrentUser;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+import static com.example.dogtrainingtracker.security.AccessSpecifications.dogWithId;
+import static com.example.dogtrainingtracker.security.AccessSpecifications.dogsAccessibleBy;
+
 @Service
 public class DogService {
 
     private final DogRepository dogRepository;
     private final UserRepository userRepository;
     private final DogTrainingService dogTrainingService;
+    private final CurrentUserResolver currentUserResolver;
+    private final TrainingStatisticsService statisticsService;
+    private final DogPurger dogPurger;
 
-    public DogService(DogRepository dogRepository, UserRepository userRepository, DogTrainingService dogTrainingService) {
+    public DogService(DogRepository dogRepository, UserRepository userRepository, DogTrainingService dogTrainingService,
+                      CurrentUserResolver currentUserResolver, TrainingStatisticsService statisticsService,
+                      DogPurger dogPurger) {
         this.dogRepository = dogRepository;
         this.userRepository = userRepository;
         this.dogTrainingService = dogTrainingService;
+        this.currentUserResolver = currentUserResolver;
+        this.statisticsService = statisticsService;
+        this.dogPurger = dogPurger;
     }
 
 
+    @Transactional(readOnly = true)
     public List<DogResponseDTO> getAllDogs(Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName())
-                .orElseThrow();
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        if (currentUser.getRole().equals("ROLE_ADMIN")) {
-            return dogRepository.findAll()
-                    .stream().map(DogResponseDTO::new).toList();
+        if (currentUser.isAdmin()) {
+            return dogRepository.findAllDtos();
         }
 
-        return dogRepository.findByOwnerId(currentUser.getId())
-                .stream().map(DogResponseDTO::new).toList();
+        return dogRepository.findDtosByOwnerId(currentUser.id());
     }
 
+    // One keyset page of the dogs accessible to the user, ordered by id
+    @Transactional(readOnly = true)
+    public CursorPage<DogResponseDTO> getDogs(String cursor, int limit, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampLimit(limit);
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<DogResponseDTO> dogs = currentUser.isAdmin()
+                ? dogRepository.findPageAfter(after.id(), fetch)
+                : dogRepository.findPageByOwnerIdAfter(currentUser.id(), after.id(), fetch);
+
+        return CursorPage.of(dogs, pageSize, dog -> PageCursor.encode(dog.id()));
+    }
+
+    @Transactional(readOnly = true)
     public DogResponseDTO getDogById(Integer id, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
-
-        Dog dog;
-        if (currentUser.getRole().equals("ROLE_ADMIN")) {
-            dog = dogRepository.findById(id).orElseThrow(() -> new DogNotFoundException(id));
-        } else {
-            dog = dogRepository.findByIdAndOwnerId(id, currentUser.getId())
-                    .orElseThrow(() -> new DogNotFoundException(id));
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        if (currentUser.isAdmin()) {
+            return dogRepository.findDtoById(id).orElseThrow(() -> new DogNotFoundException(id));
         }
-        return new DogResponseDTO(dog);
+        return dogRepository.findDtoByIdAndOwnerId(id, currentUser.id())
+                .orElseThrow(() -> new DogNotFoundException(id));
     }
 
+    // Versions of a dog the user can access, for ETag / Last-Modified checks
+    @Transactional(readOnly = true)
+    public DogVersionDTO getDogVersion(Integer id, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        if (currentUser.isAdmin()) {
+            return dogRepository.findVersionById(id).orElseThrow(() -> new DogNotFoundException(id));
+        }
+        return dogRepository.findVersionByIdAndOwnerId(id, currentUser.id())
+                .orElseThrow(() -> new DogNotFoundException(id));
+    }
+
+    @Transactional
     public DogResponseDTO createDog(DogRequestDTO dto, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName())
-                .orElseThrow();
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
         Dog dog = new Dog();
         dog.setName(dto.name());
         dog.setBreed(dto.breed());
         dog.setBirthdate(dto.birthdate());
-        dog.setOwner(currentUser);
+        // Reference only, the owner row is not read again
+        dog.setOwner(userRepository.getReferenceById(currentUser.id()));
 
-        return new DogResponseDTO(dogRepository.save(dog));
+        Dog saved = dogRepository.save(dog);
+        return new DogResponseDTO(saved.getId(), saved.getName(), saved.getBreed(), saved.getBirthdate(),
+                currentUser.username());
     }
 
+    @Transactional
     public DogResponseDTO updateDog(Integer id, DogRequestDTO dto, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName())
-                .orElseThrow();
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        Dog dog = (currentUser.getRole().equals("ROLE_ADMIN"))
-                ? dogRepository.findById(id).orElseThrow(() -> new DogNotFoundException(id))
-                : dogRepository.findByIdAndOwnerId(id, currentUser.getId())
+        Dog dog = dogRepository.findOne(dogWithId(id).and(dogsAccessibleBy(currentUser)))
                 .orElseThrow(() -> new DogNotFoundException(id));
 
         dog.setName(dto.name());
@@ -83,15 +125,18 @@ public class DogService {
         return new DogResponseDTO(dogRepository.save(dog));
     }
 
+    // Soft delete: one row update hides the dog and all its trainings from every query right away.
+    // The trainings and the dog row are removed afterwards by DogPurger in small chunks.
+    @Transactional
     public void deleteDog(Integer id, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        Dog dog = (currentUser.getRole().equals("ROLE_ADMIN"))
-                ? dogRepository.findById(id).orElseThrow(() -> new DogNotFoundException(id))
-                : dogRepository.findByIdAndOwnerId(id, currentUser.getId())
+        Dog dog = dogRepository.findOne(dogWithId(id).and(dogsAccessibleBy(currentUser)))
                 .orElseThrow(() -> new DogNotFoundException(id));
 
-        dogRepository.delete(dog);
+        dog.markDeleted();
+        statisticsService.recordDogDeleted(dog.getId());
+        dogPurger.purgeAfterCommit();
     }
 
     // Add new training for a specific dog
@@ -1,128 +1,296 @@
 package com.example.dogtrainingtracker.service;
 
+import com.example.dogtrainingtracker.dto.BatchItemResultDTO;
+import com.example.dogtrainingtracker.dto.CursorPage;
 import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.IngestReceiptDTO;
+import com.example.dogtrainingtracker.dto.PageCursor;
 import com.example.dogtrainingtracker.entities.DogTraining;
 import com.example.dogtrainingtracker.entities.Dog;
-import com.example.dogtrainingtracker.entities.User;
 import com.example.dogtrainingtracker.errorhandling.DogNotFoundException;
 import com.example.dogtrainingtracker.errorhandling.DogTrainingNotFoundException;
+import com.example.dogtrainingtracker.ingest.PendingTraining;
+import com.example.dogtrainingtracker.ingest.TrainingWriteBehindQueue;
 import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingBatchRepository;
 import com.example.dogtrainingtracker.repository.DogTrainingRepository;
-import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.security.CurrentUser;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.example.dogtrainingtracker.security.AccessSpecifications.dogWithId;
+import static com.example.dogtrainingtracker.security.AccessSpecifications.dogsAccessibleBy;
+import static com.example.dogtrainingtracker.security.AccessSpecifications.trainingWithId;
+import static com.example.dogtrainingtracker.security.AccessSpecifications.trainingsAccessibleBy;
 
 @Service
 public class DogTrainingService {
 
     private final DogTrainingRepository trainingRepository;
     private final DogRepository dogRepository;
-    private final UserRepository userRepository;
+    private final DogTrainingBatchRepository batchRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final TrainingStatisticsService statisticsService;
+    private final TrainingSearchService searchService;
+    private final TrainingWriteBehindQueue writeBehindQueue;
+    private final TrainingArchiveService archiveService;
+    private final Validator validator;
+
+    public static final int MAX_BATCH_SIZE = 1000;
 
-    public DogTrainingService(DogTrainingRepository trainingRepository, DogRepository dogRepository, UserRepository userRepository) {
+    public DogTrainingService(DogTrainingRepository trainingRepository, DogRepository dogRepository,
+                              DogTrainingBatchRepository batchRepository, CurrentUserResolver currentUserResolver,
+                              TrainingStatisticsService statisticsService, TrainingSearchService searchService,
+                              TrainingWriteBehindQueue writeBehindQueue, TrainingArchiveService archiveService,
+                              Validator validator) {
         this.trainingRepository = trainingRepository;
         this.dogRepository = dogRepository;
-        this.userRepository = userRepository;
+        this.batchRepository = batchRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.statisticsService = statisticsService;
+        this.searchService = searchService;
+        this.writeBehindQueue = writeBehindQueue;
+        this.archiveService = archiveService;
+        this.validator = validator;
     }
 
-    public List<DogTrainingResponseDTO> getAllTrainings(Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
+    // One keyset page of all trainings accessible to the user, ordered by (trainingDate, id),
+    // optionally limited to training dates from..to (inclusive, either may be null). Hot trainings only,
+    // archived ones are listed per dog
+    @Transactional(readOnly = true)
+    public CursorPage<DogTrainingResponseDTO> getAllTrainings(LocalDate from, LocalDate to, String cursor, int limit,
+                                                              Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        List<DogTraining> trainings = currentUser.getRole().equals("ROLE_ADMIN")
-                ? trainingRepository.findAll()
-                : trainingRepository.findByDogOwnerId(currentUser.getId());
+        PageCursor.checkRange(from, to);
+        PageCursor after = PageCursor.decode(cursor).notBefore(from);
+        int pageSize = PageCursor.clampLimit(limit);
+        Limit fetch = Limit.of(pageSize + 1);
 
-        return trainings.stream().map(DogTrainingResponseDTO::new).toList();
+        List<DogTrainingResponseDTO> trainings = currentUser.isAdmin()
+                ? trainingRepository.findPageAfter(after.date(), after.id(), PageCursor.orLast(to), fetch)
+                : trainingRepository.findPageByDogOwnerIdAfter(currentUser.id(), after.date(), after.id(),
+                PageCursor.orLast(to), fetch);
+
+        return toPage(trainings, pageSize);
     }
 
+    @Transactional(readOnly = true)
     public DogTrainingResponseDTO getTrainingById(Integer id, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        DogTraining training = currentUser.getRole().equals("ROLE_ADMIN")
-                ? trainingRepository.findById(id)
-                .orElseThrow(() -> new DogTrainingNotFoundException(id))
-                : trainingRepository.findByIdAndDogOwnerId(id, currentUser.getId())
+        DogTraining training = trainingRepository.findOne(
+                        trainingWithId(id).and(trainingsAccessibleBy(currentUser)))
                 .orElseThrow(() -> new DogTrainingNotFoundException(id));
 
         return new DogTrainingResponseDTO(training);
     }
 
+    @Transactional
     public DogTrainingResponseDTO createTraining(DogTrainingRequestDTO dto, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
-        Dog dog = dogRepository.findById(dto.dogId())
-                .orElseThrow(() -> new DogNotFoundException(dto.dogId()));
+        return createTrainingForDog(dto.dogId(), dto, auth);
+    }
+
+    public boolean isWriteBehindEnabled() {
+        return writeBehindQueue.isEnabled();
+    }
+
+    // Write-behind variant of createTraining: checks access, journals and queues the training
+    // and returns a tracking id; the row is committed later together with other queued trainings
+    public IngestReceiptDTO submitTraining(DogTrainingRequestDTO dto, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        // checks if dog has specific owner (if not admin)
-        if (!currentUser.getRole().equals("ROLE_ADMIN") && !dog.getOwner().getId().equals(currentUser.getId())) {
-            throw new IllegalArgumentException("You cannot add training for a dog you do not own.");
+        accessibleDogReference(dto.dogId(), currentUser);
+
+        String trackingId = UUID.randomUUID().toString();
+        writeBehindQueue.submit(new PendingTraining(trackingId, dto, LocalDateTime.now()));
+        return new IngestReceiptDTO(trackingId, IngestReceiptDTO.Status.PENDING, null);
+    }
+
+    @Transactional(readOnly = true)
+    public IngestReceiptDTO getIngestStatus(String trackingId, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        if (writeBehindQueue.isPending(trackingId)) {
+            return new IngestReceiptDTO(trackingId, IngestReceiptDTO.Status.PENDING, null);
+        }
+        if (writeBehindQueue.hasFailed(trackingId)) {
+            return new IngestReceiptDTO(trackingId, IngestReceiptDTO.Status.FAILED, null);
         }
 
-        DogTraining training = new DogTraining();
-        training.setActivity(dto.activity());
-        training.setLocation(dto.location());
-        training.setTrainingDate(dto.trainingDate());
-        training.setDurationMinutes(dto.durationMinutes());
-        training.setNotes(dto.notes());
-        training.setDog(dog);
+        Optional<DogTrainingResponseDTO> stored = currentUser.isAdmin()
+                ? trainingRepository.findDtoByIngestId(trackingId)
+                : trainingRepository.findDtoByIngestIdAndDogOwnerId(trackingId, currentUser.id());
+        return stored
+                .map(training -> new IngestReceiptDTO(trackingId, IngestReceiptDTO.Status.CREATED, training))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Unknown tracking id: " + trackingId));
+    }
+
+    // Create many trainings across several dogs in one transaction.
+    // Ownership is checked once per distinct dog and rows are written with JDBC batched inserts.
+    // Items that fail validation or access checks are reported per item and do not abort the others.
+    @Transactional
+    public List<BatchItemResultDTO> createTrainings(List<DogTrainingRequestDTO> dtos, Authentication auth) {
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch can contain at most " + MAX_BATCH_SIZE + " trainings");
+        }
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[dtos.size()];
+        for (int i = 0; i < dtos.size(); i++) {
+            // A null element ("[..., null]" in the JSON body) is an invalid item like any other
+            if (dtos.get(i) == null) {
+                results[i] = BatchItemResultDTO.failed(i, HttpStatus.BAD_REQUEST.value(), "Training is required");
+                continue;
+            }
+            Set<ConstraintViolation<DogTrainingRequestDTO>> violations = validator.validate(dtos.get(i));
+            if (!violations.isEmpty()) {
+                results[i] = BatchItemResultDTO.failed(i, HttpStatus.BAD_REQUEST.value(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        // One query for all distinct dogs; others' dogs look the same as missing ones
+        Set<Integer> dogIds = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            if (results[i] == null) {
+                dogIds.add(dtos.get(i).dogId());
+            }
+        }
+        Set<Integer> accessibleDogIds = dogIds.isEmpty() ? Set.of()
+                : currentUser.isAdmin()
+                ? dogRepository.findIdsByIdIn(dogIds)
+                : dogRepository.findIdsByIdInAndOwnerId(dogIds, currentUser.id());
 
-        return new DogTrainingResponseDTO(trainingRepository.save(training));
+        List<Integer> insertedIndexes = new ArrayList<>();
+        List<DogTraining> inserts = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < dtos.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            DogTrainingRequestDTO dto = dtos.get(i);
+            if (!accessibleDogIds.contains(dto.dogId())) {
+                results[i] = BatchItemResultDTO.failed(i, HttpStatus.NOT_FOUND.value(),
+                        new DogNotFoundException(dto.dogId()).getMessage());
+                continue;
+            }
+
+            DogTraining training = new DogTraining();
+            training.setActivity(dto.activity());
+            training.setLocation(dto.location());
+            training.setTrainingDate(dto.trainingDate());
+            training.setDurationMinutes(dto.durationMinutes());
+            training.setNotes(dto.notes());
+            training.setDog(dogRepository.getReferenceById(dto.dogId()));
+            training.setCreatedAt(now);
+
+            inserts.add(training);
+            insertedIndexes.add(i);
+        }
+
+        batchRepository.insertAll(inserts);
+        statisticsService.recordAdded(inserts);
+        touchDogs(inserts);
+        searchService.indexAfterCommit(inserts);
+
+        for (int j = 0; j < inserts.size(); j++) {
+            int index = insertedIndexes.get(j);
+            results[index] = BatchItemResultDTO.created(index, new DogTrainingResponseDTO(inserts.get(j)));
+        }
+        return Arrays.asList(results);
     }
 
+    // Archived trainings are read-only, so their ids are not found here either
+    @Transactional
     public void deleteTraining(Integer id, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        DogTraining training = currentUser.getRole().equals("ROLE_ADMIN")
-                ? trainingRepository.findById(id).orElseThrow(() -> new DogTrainingNotFoundException(id))
-                : trainingRepository.findByIdAndDogOwnerId(id, currentUser.getId())
+        DogTraining training = trainingRepository.findOne(
+                        trainingWithId(id).and(trainingsAccessibleBy(currentUser)))
                 .orElseThrow(() -> new DogTrainingNotFoundException(id));
 
         trainingRepository.delete(training);
+        statisticsService.recordRemoved(List.of(training));
+        touchDogs(List.of(training));
+        searchService.removeAfterCommit(List.of(training.getId()));
     }
 
-    // Get all trainings for a specific dog
-    public List<DogTrainingResponseDTO> getTrainingsByDogId(Integer dogId, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
-        Dog dog = dogRepository.findById(dogId).orElseThrow(() -> new DogNotFoundException(dogId));
+    // One keyset page of trainings for a specific dog, ordered by (trainingDate, id), optionally within from..to
+    @Transactional(readOnly = true)
+    public CursorPage<DogTrainingResponseDTO> getTrainingsByDogId(Integer dogId, LocalDate from, LocalDate to,
+                                                                  String cursor, int limit, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        // Only allow if admin or dog owner
-        if (!currentUser.getRole().equals("ROLE_ADMIN") && !dog.getOwner().getId().equals(currentUser.getId())) {
-            throw new IllegalArgumentException("You cannot view trainings for a dog you do not own.");
-        }
+        PageCursor.checkRange(from, to);
+        PageCursor after = PageCursor.decode(cursor).notBefore(from);
+        int pageSize = PageCursor.clampLimit(limit);
 
-        return trainingRepository.findByDogId(dogId)
-                .stream()
-                .map(DogTrainingResponseDTO::new)
-                .toList();
+        // Access is settled by the hot query before the archive is read
+        List<DogTrainingResponseDTO> hot = requireAccessibleDog(dogId, currentUser, trainingRepository.findPageByDogIdAfter(
+                dogId, currentUser.ownerScope(), after.date(), after.id(), PageCursor.orLast(to), Limit.of(pageSize + 1)));
+        return toPage(archiveService.mergeAfter(hot, dogId, null, after, to, pageSize + 1), pageSize);
     }
 
-    // Get all trainings for a specific dog, optionally filtered by activity
-    public List<DogTrainingResponseDTO> getTrainingsByDogIdAndActivity(Integer dogId, String activity, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
-        Dog dog = dogRepository.findById(dogId).orElseThrow(() -> new DogNotFoundException(dogId));
+    // One keyset page of trainings for a specific dog, newest first, as shown on the details page
+    @Transactional(readOnly = true)
+    public CursorPage<DogTrainingResponseDTO> getRecentTrainingsByDogId(Integer dogId, String cursor, int limit, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
 
-        // Only allow if admin or dog owner
-        if (!currentUser.getRole().equals("ROLE_ADMIN") && !dog.getOwner().getId().equals(currentUser.getId())) {
-            throw new IllegalArgumentException("You cannot view trainings for a dog you do not own.");
-        }
+        PageCursor before = PageCursor.decodeNewestFirst(cursor);
+        int pageSize = PageCursor.clampLimit(limit);
+
+        List<DogTrainingResponseDTO> hot = requireAccessibleDog(dogId, currentUser, trainingRepository.findPageByDogIdBefore(
+                dogId, currentUser.ownerScope(), before.date(), before.id(), Limit.of(pageSize + 1)));
+        return toPage(archiveService.mergeBefore(hot, dogId, before, pageSize + 1), pageSize);
+    }
 
-        return trainingRepository.findByDogIdAndActivity(dogId, activity)
-                .stream()
-                .map(DogTrainingResponseDTO::new)
-                .toList();
+    // One keyset page of trainings for a specific dog filtered by activity, optionally within from..to
+    @Transactional(readOnly = true)
+    public CursorPage<DogTrainingResponseDTO> getTrainingsByDogIdAndActivity(Integer dogId, String activity,
+                                                                             LocalDate from, LocalDate to,
+                                                                             String cursor, int limit, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        PageCursor.checkRange(from, to);
+        PageCursor after = PageCursor.decode(cursor).notBefore(from);
+        int pageSize = PageCursor.clampLimit(limit);
+
+        List<DogTrainingResponseDTO> hot = requireAccessibleDog(dogId, currentUser,
+                trainingRepository.findPageByDogIdAndActivityAfter(dogId, currentUser.ownerScope(), activity,
+                        after.date(), after.id(), PageCursor.orLast(to), Limit.of(pageSize + 1)));
+        return toPage(archiveService.mergeAfter(hot, dogId, activity, after, to, pageSize + 1), pageSize);
     }
 
     // Create new training for a specific dog
+    @Transactional
     public DogTrainingResponseDTO createTrainingForDog(Integer dogId, DogTrainingRequestDTO dto, Authentication auth) {
-        User currentUser = userRepository.findByUsername(auth.getName()).orElseThrow();
-        Dog dog = dogRepository.findById(dogId).orElseThrow(() -> new DogNotFoundException(dogId));
-
-        if (!currentUser.getRole().equals("ROLE_ADMIN") && !dog.getOwner().getId().equals(currentUser.getId())) {
-            throw new IllegalArgumentException("You cannot add training for a dog you do not own.");
-        }
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+        Dog dog = accessibleDogReference(dogId, currentUser);
 
         DogTraining training = new DogTraining();
         training.setActivity(dto.activity());
@@ -132,6 +300,43 @@ public class DogTrainingService {
         training.setNotes(dto.notes());
         training.setDog(dog);
 
-        return new DogTrainingResponseDTO(trainingRepository.save(training));
+        DogTraining saved = trainingRepository.save(training);
+        statisticsService.recordAdded(List.of(saved));
+        touchDogs(List.of(saved));
+        searchService.indexAfterCommit(List.of(saved));
+        return new DogTrainingResponseDTO(saved);
+    }
+
+    // Reference to a dog the user may write to, after one existence query; the dog row itself is not loaded
+    private Dog accessibleDogReference(Integer dogId, CurrentUser currentUser) {
+        if (!dogRepository.exists(dogWithId(dogId).and(dogsAccessibleBy(currentUser)))) {
+            throw new DogNotFoundException(dogId);
+        }
+        return dogRepository.getReferenceById(dogId);
+    }
+
+    // The access-scoped query returns nothing for another owner's dog; only then tell that apart from
+    // a dog without trainings, so authorized reads stay one statement
+    private List<DogTrainingResponseDTO> requireAccessibleDog(Integer dogId, CurrentUser currentUser,
+                                                              List<DogTrainingResponseDTO> rows) {
+        if (rows.isEmpty() && !dogRepository.exists(dogWithId(dogId).and(dogsAccessibleBy(currentUser)))) {
+            throw new DogNotFoundException(dogId);
+        }
+        return rows;
+    }
+
+    // Changes the ETag of the affected dogs' training listings
+    private void touchDogs(List<DogTraining> trainings) {
+        Set<Integer> dogIds = trainings.stream()
+                .map(training -> training.getDog().getId())
+                .collect(Collectors.toSet());
+        if (!dogIds.isEmpty()) {
+            dogRepository.incrementTrainingsVersion(dogIds);
+        }
+    }
+
+    private CursorPage<DogTrainingResponseDTO> toPage(List<DogTrainingResponseDTO> trainings, int pageSize) {
+        return CursorPage.of(trainings, pageSize,
+                training -> PageCursor.encode(training.trainingDate(), training.id()));
     }
 }
@@ -0,0 +1,156 @@
+package com.example.dogtrainingtracker.service;
+
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.PageCursor;
+import com.example.dogtrainingtracker.repository.TrainingArchiveRepository;
+import com.example.dogtrainingtracker.repository.TrainingArchiveRepository.Segment;
+import com.example.dogtrainingtracker.security.CurrentUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Read side of the training archive. Merges archived trainings into pages read from dog_training,
+// so callers see one list ordered by (trainingDate, id). Every archived training is dated before
+// archivedBefore(), so pages that stay after it never query training_archive at all.
+// The callers check access to the dog first; the archive itself is not access-scoped.
+@Service
+public class TrainingArchiveService {
+
+    private static final LocalDate NOTHING_ARCHIVED = LocalDate.MIN;
+
+    private static final Comparator<DogTrainingResponseDTO> OLDEST_FIRST =
+            Comparator.comparing(DogTrainingResponseDTO::trainingDate).thenComparing(DogTrainingResponseDTO::id);
+
+    private final TrainingArchiveRepository archiveRepository;
+    private final boolean archiving;
+    private final Period maxAge;
+    private final Duration boundTtl;
+
+    // Newest archived date seen by this instance; null until first read from the table, then re-read
+    // every bound-ttl so segments written by other instances are seen
+    private volatile LocalDate newestArchived;
+    private volatile boolean newestArchivedLoaded;
+    private volatile long newestArchivedReadAt;
+
+    public TrainingArchiveService(TrainingArchiveRepository archiveRepository,
+                                  @Value("${tracker.archive.enabled:false}") boolean archiving,
+                                  @Value("${tracker.archive.max-age:2y}") Period maxAge,
+                                  @Value("${tracker.archive.bound-ttl:30s}") Duration boundTtl) {
+        this.archiveRepository = archiveRepository;
+        this.archiving = archiving;
+        this.maxAge = maxAge;
+        this.boundTtl = boundTtl;
+    }
+
+    // Exclusive upper bound of archived training dates. With archiving on, the max-age cutoff also covers
+    // segments other instances wrote since; with it off, those are seen once the bound is re-read
+    public LocalDate archivedBefore() {
+        if (!newestArchivedLoaded || System.nanoTime() - newestArchivedReadAt >= boundTtl.toNanos()) {
+            LocalDate newest = archiveRepository.findNewestArchivedDate();
+            recordArchived(newest);
+            newestArchivedReadAt = System.nanoTime();
+            newestArchivedLoaded = true;
+        }
+        LocalDate newest = newestArchived;
+        LocalDate bound = newest != null ? newest.plusDays(1) : NOTHING_ARCHIVED;
+        if (archiving) {
+            LocalDate cutoff = cutoff();
+            if (cutoff.isAfter(bound)) {
+                bound = cutoff;
+            }
+        }
+        return bound;
+    }
+
+    // Trainings dated before this are archived on the next run
+    public LocalDate cutoff() {
+        return LocalDate.now().minus(maxAge);
+    }
+
+    // Called by the archiver once a segment has committed
+    synchronized void recordArchived(LocalDate lastDate) {
+        if (lastDate != null && (newestArchived == null || lastDate.isAfter(newestArchived))) {
+            newestArchived = lastDate;
+        }
+    }
+
+    // The first limit trainings after the cursor and up to to, from a page of hot rows fetched with the same
+    // bounds and limit, ordered oldest first; activity is null for every activity
+    public List<DogTrainingResponseDTO> mergeAfter(List<DogTrainingResponseDTO> hot, Integer dogId, String activity,
+                                                   PageCursor after, LocalDate to, int limit) {
+        if (!after.date().isBefore(archivedBefore())) {
+            return hot;
+        }
+
+        List<DogTrainingResponseDTO> merged = new ArrayList<>(hot);
+        LocalDate last = PageCursor.orLast(to);
+        for (Segment segment : archiveRepository.findSegments(dogId, after.date(), last)) {
+            // Segments come by first date, so once the page is full nothing later can get into it
+            if (merged.size() >= limit && merged.get(limit - 1).trainingDate().isBefore(segment.firstDate())) {
+                break;
+            }
+            for (DogTrainingResponseDTO row : archiveRepository.loadSegment(segment.id())) {
+                if ((activity == null || activity.equals(row.activity()))
+                        && isAfter(row, after) && !row.trainingDate().isAfter(last)) {
+                    merged.add(row);
+                }
+            }
+            merged.sort(OLDEST_FIRST);
+        }
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // Newest-first counterpart of mergeAfter for pages before the cursor
+    public List<DogTrainingResponseDTO> mergeBefore(List<DogTrainingResponseDTO> hot, Integer dogId,
+                                                    PageCursor before, int limit) {
+        LocalDate archivedBefore = archivedBefore();
+        // A full page of hot rows that are all newer than anything archived is already the answer
+        if (archivedBefore.equals(NOTHING_ARCHIVED)
+                || (hot.size() >= limit && !hot.get(limit - 1).trainingDate().isBefore(archivedBefore))) {
+            return hot;
+        }
+
+        List<DogTrainingResponseDTO> merged = new ArrayList<>(hot);
+        List<Segment> segments = new ArrayList<>(
+                archiveRepository.findSegments(dogId, PageCursor.first().date(), before.date()));
+        segments.sort(Comparator.comparing(Segment::lastDate).reversed());
+        for (Segment segment : segments) {
+            if (merged.size() >= limit && merged.get(limit - 1).trainingDate().isAfter(segment.lastDate())) {
+                continue;
+            }
+            for (DogTrainingResponseDTO row : archiveRepository.loadSegment(segment.id())) {
+                if (isBefore(row, before)) {
+                    merged.add(row);
+                }
+            }
+            merged.sort(OLDEST_FIRST.reversed());
+        }
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // Every archived training of the user's dogs, or of all dogs for admins, loading one segment at a time.
+    // Ordered by dog and date rather than overall date, which would need the whole archive at once
+    public Stream<DogTrainingResponseDTO> streamArchived(CurrentUser currentUser) {
+        List<Segment> segments = currentUser.isAdmin()
+                ? archiveRepository.findAllSegments()
+                : archiveRepository.findSegmentsByOwnerId(currentUser.id());
+        return segments.stream().flatMap(segment -> archiveRepository.loadSegment(segment.id()).stream());
+    }
+
+    private static boolean isAfter(DogTrainingResponseDTO row, PageCursor cursor) {
+        int byDate = row.trainingDate().compareTo(cursor.date());
+        return byDate > 0 || (byDate == 0 && row.id() > cursor.id());
+    }
+
+    private static boolean isBefore(DogTrainingResponseDTO row, PageCursor cursor) {
+        int byDate = row.trainingDate().compareTo(cursor.date());
+        return byDate < 0 || (byDate == 0 && row.id() < cursor.id());
+    }
+}
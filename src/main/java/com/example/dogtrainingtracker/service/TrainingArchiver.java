@@ -0,0 +1,160 @@
+package com.example.dogtrainingtracker.service;
+
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.TrainingArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Moves trainings older than tracker.archive.max-age out of dog_training into training_archive, every interval
+// when tracker.archive.enabled is set. Each segment of at most segment-size trainings of one dog is written
+// and deleted from dog_training in one short transaction, so readers see every training in exactly one place.
+// Statistics are untouched, archived trainings still count; they drop out of full-text search.
+@Component
+public class TrainingArchiver implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingArchiver.class);
+
+    private static final int DOGS_PER_ROUND = 100;
+
+    private final TrainingArchiveRepository archiveRepository;
+    private final DogRepository dogRepository;
+    private final TrainingArchiveService archiveService;
+    private final TrainingSearchService searchService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int segmentSize;
+    private final Duration interval;
+
+    private final Semaphore stopSignal = new Semaphore(0);
+    private Thread archiverThread;
+    private volatile boolean running;
+    private volatile boolean stopping;
+
+    public TrainingArchiver(TrainingArchiveRepository archiveRepository, DogRepository dogRepository,
+                            TrainingArchiveService archiveService,
+                            TrainingSearchService searchService, TransactionTemplate transactionTemplate,
+                            @Value("${tracker.archive.enabled:false}") boolean enabled,
+                            @Value("${tracker.archive.segment-size:5000}") int segmentSize,
+                            @Value("${tracker.archive.interval:1d}") Duration interval) {
+        this.archiveRepository = archiveRepository;
+        this.dogRepository = dogRepository;
+        this.archiveService = archiveService;
+        this.searchService = searchService;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.segmentSize = segmentSize;
+        this.interval = interval;
+    }
+
+    // Archives every training dated before cutoff and returns how many were moved; also used by tests
+    public int archiveBefore(LocalDate cutoff) {
+        int archived = 0;
+        while (!stopping) {
+            List<Integer> dogIds = archiveRepository.findDogIdsWithTrainingsBefore(cutoff, DOGS_PER_ROUND);
+            int round = 0;
+            for (Integer dogId : dogIds) {
+                round += archiveDog(dogId, cutoff);
+            }
+            archived += round;
+            // A dog deleted meanwhile has nothing left to move; it is not picked again
+            if (dogIds.size() < DOGS_PER_ROUND || round == 0) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} trainings dated before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveDog(Integer dogId, LocalDate cutoff) {
+        int archived = 0;
+        while (!stopping) {
+            List<DogTrainingResponseDTO> moved = transactionTemplate.execute(status -> {
+                List<DogTrainingResponseDTO> segment = archiveRepository.moveToArchive(dogId, cutoff, segmentSize);
+                if (!segment.isEmpty()) {
+                    // The moved rows now read back as archived, so cached trainings listings must not get a 304
+                    dogRepository.incrementTrainingsVersion(Set.of(dogId));
+                    searchService.removeAfterCommit(segment.stream().map(DogTrainingResponseDTO::id).toList());
+                    recordArchivedAfterCommit(segment.getLast().trainingDate());
+                }
+                return segment;
+            });
+            archived += moved.size();
+            if (moved.size() < segmentSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private void recordArchivedAfterCommit(LocalDate lastDate) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                archiveService.recordArchived(lastDate);
+            }
+        });
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        stopping = false;
+        archiverThread = Thread.ofPlatform().name("training-archiver").daemon().start(this::run);
+    }
+
+    // Stops between segments; trainings not moved yet stay in dog_training until the next run
+    @Override
+    public void stop() {
+        stopping = true;
+        stopSignal.release();
+        try {
+            archiverThread.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (!stopping) {
+            try {
+                archiveBefore(archiveService.cutoff());
+            } catch (RuntimeException e) {
+                log.warn("Archiving trainings failed, retrying in {}", interval, e);
+            }
+            try {
+                if (stopSignal.tryAcquire(interval.toNanos(), TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
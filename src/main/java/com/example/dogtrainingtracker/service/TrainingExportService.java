@@ -0,0 +1,118 @@
+package com.example.dogtrainingtracker.service;
+
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.ExportFormat;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import com.example.dogtrainingtracker.security.CurrentUser;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Streams a user's trainings straight from a database cursor to the response.
+// Rows are DTO projections, so nothing accumulates in the persistence context,
+// and output is flushed in small chunks so heap use stays flat regardless of export size.
+// Archived trainings come first, one segment at a time, followed by the trainings in dog_training.
+@Service
+public class TrainingExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String CSV_HEADER = "id,dogId,activity,location,trainingDate,durationMinutes,notes,createdAt";
+
+    private final DogTrainingRepository trainingRepository;
+    private final TrainingArchiveService archiveService;
+    private final CurrentUserResolver currentUserResolver;
+    private final ObjectMapper objectMapper;
+
+    public TrainingExportService(DogTrainingRepository trainingRepository,
+                                 TrainingArchiveService archiveService,
+                                 CurrentUserResolver currentUserResolver,
+                                 ObjectMapper objectMapper) {
+        this.trainingRepository = trainingRepository;
+        this.archiveService = archiveService;
+        this.currentUserResolver = currentUserResolver;
+        this.objectMapper = objectMapper;
+    }
+
+    // Admins export every training; users export the trainings of their own dogs
+    @Transactional(readOnly = true)
+    public void exportTrainings(ExportFormat format, Authentication auth, OutputStream out) throws IOException {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        // Send the first bytes before the query has produced any rows
+        writer.flush();
+
+        // The archive is read before the cursor on dog_training opens, so the two never interleave
+        try (Stream<DogTrainingResponseDTO> rows = archiveService.streamArchived(currentUser)) {
+            writeRows(rows.iterator(), format, writer);
+        }
+        try (Stream<DogTrainingResponseDTO> rows = currentUser.isAdmin()
+                ? trainingRepository.streamAll()
+                : trainingRepository.streamByDogOwnerId(currentUser.id())) {
+            writeRows(rows.iterator(), format, writer);
+        }
+        writer.flush();
+    }
+
+    private void writeRows(Iterator<DogTrainingResponseDTO> iterator, ExportFormat format, Writer writer)
+            throws IOException {
+        int written = 0;
+        while (iterator.hasNext()) {
+            DogTrainingResponseDTO row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsv(writer, row);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            if (++written % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    private static void writeCsv(Writer writer, DogTrainingResponseDTO row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(String.valueOf(row.dogId()));
+        writer.write(',');
+        writer.write(csvField(row.activity()));
+        writer.write(',');
+        writer.write(csvField(row.location()));
+        writer.write(',');
+        writer.write(String.valueOf(row.trainingDate()));
+        writer.write(',');
+        writer.write(String.valueOf(row.durationMinutes()));
+        writer.write(',');
+        writer.write(csvField(row.notes()));
+        writer.write(',');
+        writer.write(String.valueOf(row.createdAt()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: fields with separators, quotes or line breaks are quoted and quotes are doubled
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.dogtrainingtracker.service;
+
+import com.example.dogtrainingtracker.entities.DogTraining;
+import com.example.dogtrainingtracker.ingest.PendingTraining;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingBatchRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Commits one group of write-behind trainings in a single transaction with a JDBC batch insert.
+// Trainings already stored (replayed from the journal) are skipped by ingest id, also when they have
+// since been archived or their dog was deleted.
+@Service
+public class TrainingIngestWriter {
+
+    private final DogTrainingRepository trainingRepository;
+    private final DogRepository dogRepository;
+    private final DogTrainingBatchRepository batchRepository;
+    private final TrainingStatisticsService statisticsService;
+    private final TrainingSearchService searchService;
+
+    public TrainingIngestWriter(DogTrainingRepository trainingRepository, DogRepository dogRepository,
+                                DogTrainingBatchRepository batchRepository,
+                                TrainingStatisticsService statisticsService, TrainingSearchService searchService) {
+        this.trainingRepository = trainingRepository;
+        this.dogRepository = dogRepository;
+        this.batchRepository = batchRepository;
+        this.statisticsService = statisticsService;
+        this.searchService = searchService;
+    }
+
+    // Returns the ingest ids that could not be stored because their dog no longer exists
+    @Transactional
+    public List<String> write(List<PendingTraining> group) {
+        Set<String> stored = trainingRepository.findStoredIngestIds(
+                group.stream().map(PendingTraining::ingestId).toList());
+        Set<Integer> existingDogs = dogRepository.findIdsByIdIn(
+                group.stream().map(PendingTraining::dogId).collect(Collectors.toSet()));
+
+        List<DogTraining> inserts = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (PendingTraining pending : group) {
+            if (stored.contains(pending.ingestId())) {
+                continue;
+            }
+            if (!existingDogs.contains(pending.dogId())) {
+                failed.add(pending.ingestId());
+                continue;
+            }
+
+            DogTraining training = new DogTraining();
+            training.setActivity(pending.activity());
+            training.setLocation(pending.location());
+            training.setTrainingDate(pending.trainingDate());
+            training.setDurationMinutes(pending.durationMinutes());
+            training.setNotes(pending.notes());
+            training.setDog(dogRepository.getReferenceById(pending.dogId()));
+            training.setCreatedAt(pending.createdAt());
+            training.setIngestId(pending.ingestId());
+            inserts.add(training);
+        }
+
+        if (!inserts.isEmpty()) {
+            batchRepository.insertAll(inserts);
+            statisticsService.recordAdded(inserts);
+            dogRepository.incrementTrainingsVersion(inserts.stream()
+                    .map(training -> training.getDog().getId())
+                    .collect(Collectors.toSet()));
+            searchService.indexAfterCommit(inserts);
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.dogtrainingtracker.service;
+
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.entities.DogTraining;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import com.example.dogtrainingtracker.search.TrainingSearchIndex;
+import com.example.dogtrainingtracker.security.CurrentUser;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Full-text search over training notes, activity and location, backed by TrainingSearchIndex.
+// Writes reach the index after their transaction commits, so rolled back trainings are never searchable.
+@Service
+public class TrainingSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingSearchService.class);
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final TrainingSearchIndex index;
+    private final DogTrainingRepository trainingRepository;
+    private final DogRepository dogRepository;
+    private final CurrentUserResolver currentUserResolver;
+
+    public TrainingSearchService(TrainingSearchIndex index, DogTrainingRepository trainingRepository,
+                                 DogRepository dogRepository, CurrentUserResolver currentUserResolver) {
+        this.index = index;
+        this.trainingRepository = trainingRepository;
+        this.dogRepository = dogRepository;
+        this.currentUserResolver = currentUserResolver;
+    }
+
+    // Trainings matching every word of the query, highest id (most recently recorded, whatever the training
+    // date) first; users only see their own dogs' trainings
+    public List<DogTrainingResponseDTO> search(String query, int limit, Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        Set<String> terms = TrainingSearchIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must contain a word");
+        }
+
+        IntPredicate dogFilter;
+        if (currentUser.isAdmin()) {
+            dogFilter = dogId -> true;
+        } else {
+            Set<Integer> dogIds = dogRepository.findIdsByOwnerId(currentUser.id());
+            dogFilter = dogIds::contains;
+        }
+
+        // The index still holds trainings the database no longer returns (deleted since, or their dog is
+        // soft-deleted and not yet purged). Those drop out, and the page is topped up from further down
+        // the index, asking for twice as many ids each round, until it is full or the index has no more
+        int wanted = Math.clamp(limit, 1, MAX_LIMIT);
+        List<DogTrainingResponseDTO> found = new ArrayList<>(wanted);
+        int fetch = wanted;
+        int checked = 0;
+        while (true) {
+            List<Integer> ids = index.search(terms, dogFilter, fetch);
+            List<Integer> next = ids.subList(checked, ids.size());
+            if (!next.isEmpty()) {
+                Map<Integer, DogTrainingResponseDTO> rows = trainingRepository.findDtosByIdIn(next).stream()
+                        .collect(Collectors.toMap(DogTrainingResponseDTO::id, Function.identity()));
+                for (Integer id : next) {
+                    DogTrainingResponseDTO row = rows.get(id);
+                    if (row != null) {
+                        found.add(row);
+                        if (found.size() == wanted) {
+                            return found;
+                        }
+                    }
+                }
+            }
+            if (ids.size() < fetch) {
+                return found;
+            }
+            checked = ids.size();
+            fetch *= 2;
+        }
+    }
+
+    public void indexAfterCommit(List<DogTraining> trainings) {
+        List<DogTraining> added = List.copyOf(trainings);
+        afterCommit(() -> added.forEach(training -> index.put(training.getId(), training.getDog().getId(),
+                training.getActivity(), training.getLocation(), training.getNotes())));
+    }
+
+    public void removeAfterCommit(List<Integer> trainingIds) {
+        List<Integer> removed = List.copyOf(trainingIds);
+        afterCommit(() -> index.removeAll(removed));
+    }
+
+    // Brings the index in line with the database at startup. Ids only grow and trainings are never edited,
+    // so a snapshot with the database's row count and highest id holds exactly its trainings. One that only
+    // misses newer trainings is caught up by id; one that also misses deletes is thrown away and rebuilt.
+    @Transactional(readOnly = true)
+    public void synchronize() {
+        long rows = trainingRepository.count();
+        int maxId = trainingRepository.findMaxId();
+        boolean loaded = index.loadSnapshot();
+
+        if (loaded && !isInSync(rows, maxId)) {
+            int added = indexAll(trainingRepository.streamAfterId(index.maxTrainingId()));
+            log.info("Search index snapshot caught up with {} newer trainings", added);
+        }
+        if (!loaded || !isInSync(rows, maxId)) {
+            index.clear();
+            int added = indexAll(trainingRepository.streamAll());
+            log.info("Search index rebuilt from {} trainings", added);
+        }
+        index.saveSnapshot();
+    }
+
+    private boolean isInSync(long rows, int maxId) {
+        return index.size() == rows && index.maxTrainingId() == maxId;
+    }
+
+    private int indexAll(Stream<DogTrainingResponseDTO> trainings) {
+        try (trainings) {
+            int[] count = {0};
+            trainings.forEach(training -> {
+                index.put(training.id(), training.dogId(), training.activity(), training.location(), training.notes());
+                count[0]++;
+            });
+            return count[0];
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.dogtrainingtracker.service;
+
+import com.example.dogtrainingtracker.dto.DailyTrainingTotalDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.TrainingStatsDTO;
+import com.example.dogtrainingtracker.entities.DogTraining;
+import com.example.dogtrainingtracker.entities.TrainingPeriod;
+import com.example.dogtrainingtracker.entities.TrainingSummary;
+import com.example.dogtrainingtracker.entities.TrainingSummaryId;
+import com.example.dogtrainingtracker.errorhandling.DogNotFoundException;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import com.example.dogtrainingtracker.repository.TrainingArchiveRepository;
+import com.example.dogtrainingtracker.repository.TrainingSummaryRepository;
+import com.example.dogtrainingtracker.security.CurrentUser;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Reads and maintains the training_summary table, totals per (dog, period, activity).
+// Writes to dog_training call recordAdded/recordRemoved inside their own transaction,
+// so statistics reads cost O(periods) instead of scanning every session.
+@Service
+public class TrainingStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingStatisticsService.class);
+
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+    private static final int REBUILD_FLUSH_SIZE = 1000;
+
+    private final TrainingSummaryRepository summaryRepository;
+    private final DogTrainingRepository trainingRepository;
+    private final TrainingArchiveRepository archiveRepository;
+    private final DogRepository dogRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final EntityManager entityManager;
+
+    public TrainingStatisticsService(TrainingSummaryRepository summaryRepository,
+                                     DogTrainingRepository trainingRepository,
+                                     TrainingArchiveRepository archiveRepository,
+                                     DogRepository dogRepository,
+                                     CurrentUserResolver currentUserResolver,
+                                     EntityManager entityManager) {
+        this.summaryRepository = summaryRepository;
+        this.trainingRepository = trainingRepository;
+        this.archiveRepository = archiveRepository;
+        this.dogRepository = dogRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.entityManager = entityManager;
+    }
+
+    // Statistics for one dog, admins can read any dog
+    @Transactional(readOnly = true)
+    public List<TrainingStatsDTO> getDogStatistics(Integer dogId, TrainingPeriod period, LocalDate from, LocalDate to,
+                                                   Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        boolean accessible = currentUser.isAdmin()
+                ? dogRepository.existsById(dogId)
+                : dogRepository.existsByIdAndOwnerId(dogId, currentUser.id());
+        if (!accessible) {
+            throw new DogNotFoundException(dogId);
+        }
+
+        return summaryRepository.findStatsByDogId(dogId, period, orEarliest(from), orLatest(to));
+    }
+
+    // Statistics summed over all dogs of an owner; admins may pick the owner or get every dog
+    @Transactional(readOnly = true)
+    public List<TrainingStatsDTO> getOwnerStatistics(Integer ownerId, TrainingPeriod period, LocalDate from, LocalDate to,
+                                                     Authentication auth) {
+        CurrentUser currentUser = currentUserResolver.resolve(auth);
+
+        if (!currentUser.isAdmin()) {
+            return summaryRepository.findStatsByOwnerId(currentUser.id(), period, orEarliest(from), orLatest(to));
+        }
+        if (ownerId == null) {
+            return summaryRepository.findStatsForAllDogs(period, orEarliest(from), orLatest(to));
+        }
+        return summaryRepository.findStatsByOwnerId(ownerId, period, orEarliest(from), orLatest(to));
+    }
+
+    // Must run in the transaction that inserted the trainings; dog must be set on each
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(Collection<DogTraining> trainings) {
+        applyDeltas(trainings, 1);
+    }
+
+    // Must run in the transaction that deleted the trainings; dog must be set on each
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Collection<DogTraining> trainings) {
+        applyDeltas(trainings, -1);
+        Set<Integer> dogIds = new HashSet<>();
+        for (DogTraining training : trainings) {
+            dogIds.add(training.getDog().getId());
+        }
+        dogIds.forEach(summaryRepository::deleteEmptyByDogId);
+    }
+
+    // Must run in the transaction that soft-deletes the dog, so its totals vanish from every statistic at once;
+    // the trainings themselves are purged later without going through recordRemoved
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDogDeleted(Integer dogId) {
+        summaryRepository.deleteByDogId(dogId);
+    }
+
+    // Recomputes the whole table from dog_training and the archive, run it while trainings are not being written.
+    // Reads one row per (dog, activity, day) ordered so each week and month is complete before it is written.
+    @Transactional
+    public void rebuild() {
+        log.info("Rebuilding training summary table...");
+        summaryRepository.deleteAllInBatch();
+
+        Map<TrainingSummaryId, long[]> open = new LinkedHashMap<>();
+        Integer currentDog = null;
+        String currentActivity = null;
+        int written = 0;
+
+        try (Stream<DailyTrainingTotalDTO> days = trainingRepository.streamDailyTotals()) {
+            for (DailyTrainingTotalDTO day : (Iterable<DailyTrainingTotalDTO>) days::iterator) {
+                if (!day.dogId().equals(currentDog) || !day.activity().equals(currentActivity)) {
+                    written += persist(open);
+                    currentDog = day.dogId();
+                    currentActivity = day.activity();
+                }
+                for (TrainingPeriod period : TrainingPeriod.values()) {
+                    long[] totals = open.computeIfAbsent(new TrainingSummaryId(
+                            day.dogId(), period, period.startOf(day.trainingDate()), day.activity()), id -> new long[2]);
+                    totals[0] += day.sessions();
+                    totals[1] += day.totalMinutes();
+                }
+            }
+        }
+        written += persist(open);
+
+        // Archived trainings left dog_training but still count; each segment is added as deltas
+        long archived = 0;
+        for (TrainingArchiveRepository.Segment segment : archiveRepository.findAllSegments()) {
+            List<DogTrainingResponseDTO> rows = archiveRepository.loadSegment(segment.id());
+            Map<TrainingSummaryId, long[]> deltas = new LinkedHashMap<>();
+            for (DogTrainingResponseDTO row : rows) {
+                addDelta(deltas, row.dogId(), row.activity(), row.trainingDate(), 1, row.durationMinutes());
+            }
+            upsert(deltas);
+            archived += rows.size();
+        }
+
+        log.info("Training summary rebuilt: {} rows, {} archived trainings", written, archived);
+    }
+
+    private int persist(Map<TrainingSummaryId, long[]> rows) {
+        int count = 0;
+        for (Map.Entry<TrainingSummaryId, long[]> row : rows.entrySet()) {
+            TrainingSummary summary = new TrainingSummary();
+            summary.setId(row.getKey());
+            summary.setSessionCount(row.getValue()[0]);
+            summary.setTotalMinutes(row.getValue()[1]);
+            entityManager.persist(summary);
+
+            if (++count % REBUILD_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        rows.clear();
+        return count;
+    }
+
+    // Collapses trainings into one delta per summary row, so a batch costs one upsert per row touched
+    private void applyDeltas(Collection<DogTraining> trainings, int sign) {
+        Map<TrainingSummaryId, long[]> deltas = new LinkedHashMap<>();
+        for (DogTraining training : trainings) {
+            addDelta(deltas, training.getDog().getId(), training.getActivity(), training.getTrainingDate(),
+                    sign, training.getDurationMinutes());
+        }
+        upsert(deltas);
+    }
+
+    private static void addDelta(Map<TrainingSummaryId, long[]> deltas, Integer dogId, String activity,
+                                 LocalDate trainingDate, int sign, int durationMinutes) {
+        for (TrainingPeriod period : TrainingPeriod.values()) {
+            long[] delta = deltas.computeIfAbsent(new TrainingSummaryId(
+                    dogId, period, period.startOf(trainingDate), activity), id -> new long[2]);
+            delta[0] += sign;
+            delta[1] += (long) sign * durationMinutes;
+        }
+    }
+
+    private void upsert(Map<TrainingSummaryId, long[]> deltas) {
+        deltas.forEach((id, delta) -> summaryRepository.addDelta(
+                id.getDogId(), id.getPeriodType().name(), id.getPeriodStart(), id.getActivity(), delta[0], delta[1]));
+    }
+
+    private static LocalDate orEarliest(LocalDate from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    private static LocalDate orLatest(LocalDate to) {
+        return to != null ? to : LATEST;
+    }
+}
@@ -0,0 +1,37 @@
+package db.migration;
+
+import com.example.dogtrainingtracker.repository.TrainingPartitionRepository;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Date;
+import java.time.YearMonth;
+
+// Range-partitions dog_training by month when tracker.partitioning.enabled is set (via the
+// "partitioning" placeholder) and the database is MySQL; otherwise it only records the version.
+// The choice is made once, when this migration is applied. Converting copies the whole table.
+public class V6__partition_dog_training extends BaseJavaMigration {
+
+    // The first partition holds everything older, which also keeps stray dates under MySQL's partition limit
+    private static final int MAX_HISTORY_YEARS = 20;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        boolean enabled = Boolean.parseBoolean(context.getConfiguration().getPlaceholders().get("partitioning"));
+        if (!enabled || !"MySQL".equals(context.getConnection().getMetaData().getDatabaseProductName())) {
+            return;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        YearMonth current = YearMonth.now();
+        Date oldest = jdbcTemplate.queryForObject("select min(training_date) from dog_training", Date.class);
+        YearMonth first = oldest == null ? current : YearMonth.from(oldest.toLocalDate());
+        if (first.isBefore(current.minusYears(MAX_HISTORY_YEARS))) {
+            first = current.minusYears(MAX_HISTORY_YEARS);
+        }
+        // TrainingPartitionMaintenance adds the months ahead on startup
+        new TrainingPartitionRepository(jdbcTemplate).partitionByMonth(first, current);
+    }
+}
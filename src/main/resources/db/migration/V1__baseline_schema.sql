@@ -0,0 +1,34 @@
+-- Baseline schema, matching what ddl-auto=update used to create for the entities
+
+create table users (
+    id       int          not null auto_increment,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    role     varchar(255) not null,
+    enabled  bit          not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create table dog (
+    id        int         not null auto_increment,
+    name      varchar(50) not null,
+    breed     varchar(50) not null,
+    birthdate date        not null,
+    owner_id  int,
+    primary key (id),
+    constraint fk_dog_owner foreign key (owner_id) references users (id)
+);
+
+create table dog_training (
+    id               int          not null auto_increment,
+    activity         varchar(100) not null,
+    location         varchar(100) not null,
+    training_date    date         not null,
+    duration_minutes int          not null,
+    notes            text,
+    dog_id           int,
+    created_at       datetime(6)  not null,
+    primary key (id),
+    constraint fk_dog_training_dog foreign key (dog_id) references dog (id)
+);
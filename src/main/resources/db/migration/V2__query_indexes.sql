@@ -0,0 +1,14 @@
+-- Indexes for the repository query methods. InnoDB appends the primary key to every
+-- secondary index, so (..., training_date) also serves ORDER BY training_date, id.
+
+-- findByDogIdAndActivity, keyset pages by dog and activity
+create index idx_dog_training_dog_activity_date on dog_training (dog_id, activity, training_date);
+
+-- findByDogId, keyset pages and exports by dog
+create index idx_dog_training_dog_date on dog_training (dog_id, training_date);
+
+-- keyset pages over all trainings (admin)
+create index idx_dog_training_date on dog_training (training_date);
+
+-- findByOwnerId, findByIdAndOwnerId, keyset pages by owner; the join side of findByDogOwnerId
+create index idx_dog_owner_id on dog (owner_id, id);
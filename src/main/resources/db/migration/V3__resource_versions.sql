@@ -0,0 +1,9 @@
+-- Optimistic-lock versions and last-modified times for conditional GETs.
+-- dog.trainings_version changes whenever one of the dog's trainings is added or removed.
+
+alter table dog add column version bigint not null default 0;
+alter table dog add column last_modified datetime(6) not null default current_timestamp(6);
+alter table dog add column trainings_version bigint not null default 0;
+
+alter table dog_training add column version bigint not null default 0;
+alter table dog_training add column last_modified datetime(6) not null default current_timestamp(6);
@@ -0,0 +1,4 @@
+-- Tracking id of trainings stored through the write-behind queue; unique so journal replays are idempotent
+
+alter table dog_training add column ingest_id varchar(36);
+create unique index uk_dog_training_ingest_id on dog_training (ingest_id);
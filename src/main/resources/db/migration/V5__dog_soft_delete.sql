@@ -0,0 +1,5 @@
+-- Deleting a dog only sets this flag; DogPurger removes its trainings in small chunks and then the dog row.
+-- (deleted, id) lets the training queries list the few hidden dogs from the index alone.
+
+alter table dog add column deleted bit not null default 0;
+create index idx_dog_deleted on dog (deleted, id);
@@ -0,0 +1,18 @@
+-- Cold tier for trainings older than tracker.archive.max-age, written by TrainingArchiver.
+-- Each row is an immutable segment of one dog's trainings between first_date and last_date,
+-- Smile-encoded and deflated. Segments are only ever inserted, and removed with their dog.
+-- (dog_id, first_date) finds the segments a date range needs without opening the others.
+
+create table training_archive (
+    id         bigint      not null auto_increment,
+    dog_id     int         not null,
+    first_date date        not null,
+    last_date  date        not null,
+    row_count  int         not null,
+    payload    longblob    not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint fk_training_archive_dog foreign key (dog_id) references dog (id)
+);
+
+create index idx_training_archive_dog_dates on training_archive (dog_id, first_date, last_date);
@@ -0,0 +1,16 @@
+-- Totals per dog, period and activity for the statistics endpoints. Not part of the V1 baseline:
+-- databases baselined at V1 never ran it. "if not exists" because ddl-auto may already have created it.
+-- Existing trainings are not counted until the table is rebuilt with --rebuild-stats.
+
+create table if not exists training_summary (
+    dog_id        int          not null,
+    period_type   varchar(10)  not null,
+    period_start  date         not null,
+    activity      varchar(100) not null,
+    session_count bigint       not null,
+    total_minutes bigint       not null,
+    primary key (dog_id, period_type, period_start, activity)
+);
+
+-- statistics over all dogs (admin)
+create index idx_training_summary_period on training_summary (period_type, period_start);
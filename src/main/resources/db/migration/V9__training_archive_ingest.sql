@@ -0,0 +1,12 @@
+-- Ingest ids of archived trainings. Archive segments do not carry them, but a replayed write-behind
+-- journal must still find a training it already stored after the training moved to the archive.
+-- Written with the segment by TrainingArchiver, removed with the dog.
+
+create table training_archive_ingest (
+    ingest_id varchar(36) not null,
+    dog_id    int         not null,
+    primary key (ingest_id),
+    constraint fk_training_archive_ingest_dog foreign key (dog_id) references dog (id)
+);
+
+create index idx_training_archive_ingest_dog on training_archive_ingest (dog_id);
@@ -0,0 +1,50 @@
+// Posts the training form and the delete buttons with fetch and swaps in the fragment that comes back,
+// so the page is not rendered again. Without JavaScript the same forms post normally and redirect back.
+const FRAGMENT_HEADER = {'X-Fragment': 'true'};
+
+function showMessage(text) {
+    const message = document.getElementById('message');
+    message.querySelector('span').textContent = text;
+    message.hidden = false;
+}
+
+async function addTraining(form) {
+    const response = await fetch(form.action, {
+        method: 'POST',
+        headers: FRAGMENT_HEADER,
+        body: new URLSearchParams(new FormData(form))
+    });
+
+    if (response.ok) {
+        document.querySelector('#trainings tbody').insertAdjacentHTML('afterbegin', await response.text());
+        form.reset();
+        showMessage('Träning sparad');
+    } else if (response.status === 400) {
+        // The form fragment with the validation messages
+        form.outerHTML = await response.text();
+    } else {
+        form.submit();
+    }
+}
+
+async function deleteTraining(form) {
+    const response = await fetch(form.action, {method: 'POST', headers: FRAGMENT_HEADER});
+
+    if (response.ok) {
+        form.closest('tr').remove();
+        showMessage('Träning raderad');
+    } else {
+        form.submit();
+    }
+}
+
+document.addEventListener('submit', event => {
+    const form = event.target;
+    const action = form.dataset.fragment === 'add' ? addTraining
+        : form.dataset.fragment === 'delete' ? deleteTraining
+            : null;
+    if (action) {
+        event.preventDefault();
+        action(form);
+    }
+});
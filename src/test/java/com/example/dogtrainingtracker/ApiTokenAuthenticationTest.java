@@ -0,0 +1,77 @@
+package com.example.dogtrainingtracker;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Bearer tokens against the real filter chains: no session is created, and revoked tokens stop working
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ApiTokenAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String issueToken() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"username": "user", "password": "password"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.accessToken");
+    }
+
+    @Test
+    void bearerToken_shouldAuthenticateWithoutSession() throws Exception {
+        String token = issueToken();
+
+        MvcResult result = mockMvc.perform(get("/api/dogs").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void wrongPassword_shouldNotIssueToken() throws Exception {
+        mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"username": "user", "password": "wrong"}
+                                """))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void revokedToken_shouldBeRejected() throws Exception {
+        String token = issueToken();
+
+        mockMvc.perform(post("/api/auth/revoke").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/dogs").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void formLoginPages_shouldStillRedirectToLogin() throws Exception {
+        mockMvc.perform(get("/dogs"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
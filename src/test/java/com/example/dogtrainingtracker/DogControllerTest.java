@@ -1,22 +1,32 @@
 package com.example.dogtrainingtracker;
 
+import com.example.dogtrainingtracker.config.BinaryFormatsConfig;
 import com.example.dogtrainingtracker.controller.DogController;
+import com.example.dogtrainingtracker.dto.CursorPage;
 import com.example.dogtrainingtracker.dto.DogResponseDTO;
+import com.example.dogtrainingtracker.dto.DogVersionDTO;
 import com.example.dogtrainingtracker.service.DogService;
 import com.example.dogtrainingtracker.service.DogTrainingService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -25,6 +35,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 
 
 @WebMvcTest(DogController.class)
+@Import(BinaryFormatsConfig.class)
 class DogControllerRoleBasedTest {
 
     @Autowired
@@ -65,7 +76,7 @@ class DogControllerRoleBasedTest {
                 createMockDog(4, "Charlie", "Bulldog", 2)
         );
 
-        when(dogService.getAllDogs(any())).thenReturn(allDogs);
+        when(dogService.getDogs(any(), anyInt(), any())).thenReturn(new CursorPage<>(allDogs, null));
 
         // Act & Assert
         mockMvc.perform(get("/api/dogs")
@@ -87,7 +98,7 @@ class DogControllerRoleBasedTest {
                 createMockDog(2, "Max", "Labrador", 1)
         );
 
-        when(dogService.getAllDogs(any())).thenReturn(userDogs);
+        when(dogService.getDogs(any(), anyInt(), any())).thenReturn(new CursorPage<>(userDogs, null));
 
         // Act & Assert
         mockMvc.perform(get("/api/dogs")
@@ -107,7 +118,7 @@ class DogControllerRoleBasedTest {
                 createMockDog(4, "Charlie", "Bulldog", 2)
         );
 
-        when(dogService.getAllDogs(any())).thenReturn(userDogs);
+        when(dogService.getDogs(any(), anyInt(), any())).thenReturn(new CursorPage<>(userDogs, null));
 
         // Act & Assert
         mockMvc.perform(get("/api/dogs")
@@ -175,4 +186,70 @@ class DogControllerRoleBasedTest {
                 .andExpect(jsonPath("$.name").value("Rocky"))
                 .andExpect(jsonPath("$.breed").value("Cocker Spaniel"));
     }
+
+    // TEST conditional GET api/dogs/{id}
+
+    @Test
+    @WithMockUser(username = "user")
+    void getById_shouldReturnETagAndBody() throws Exception {
+        when(dogService.getDogVersion(any(), any()))
+                .thenReturn(new DogVersionDTO(1, 3, LocalDateTime.of(2025, 1, 1, 12, 0), 0));
+        when(dogService.getDogById(any(), any())).thenReturn(createMockDog(1, "Buddy", "Golden Retriever", 1));
+
+        mockMvc.perform(get("/api/dogs/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"dog-1-3-json\""))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andExpect(jsonPath("$.name").value("Buddy"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getById_shouldNotConfirmAnotherFormatsETag() throws Exception {
+        when(dogService.getDogVersion(any(), any()))
+                .thenReturn(new DogVersionDTO(1, 3, LocalDateTime.of(2025, 1, 1, 12, 0), 0));
+        when(dogService.getDogById(any(), any())).thenReturn(createMockDog(1, "Buddy", "Golden Retriever", 1));
+
+        // A JSON client's tag must not get a 304 for the CBOR body
+        mockMvc.perform(get("/api/dogs/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"dog-1-3-json\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"dog-1-3-cbor\""));
+
+        mockMvc.perform(get("/api/dogs/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"dog-1-3-cbor\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getById_shouldReturnNotModifiedForMatchingETag() throws Exception {
+        when(dogService.getDogVersion(any(), any()))
+                .thenReturn(new DogVersionDTO(1, 3, LocalDateTime.of(2025, 1, 1, 12, 0), 0));
+
+        mockMvc.perform(get("/api/dogs/1").header("If-None-Match", "\"dog-1-3-json\""))
+                .andExpect(status().isNotModified());
+
+        verify(dogService, never()).getDogById(any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getTrainings_shouldNotReturnNotModifiedForAnotherQuerysETag() throws Exception {
+        DogVersionDTO version = new DogVersionDTO(1, 3, LocalDateTime.of(2025, 1, 1, 12, 0), 5);
+        when(dogService.getDogVersion(any(), any())).thenReturn(version);
+        when(dogTrainingService.getTrainingsByDogIdAndActivity(any(), any(), any(), any(), any(), anyInt(), any()))
+                .thenReturn(new CursorPage<>(List.of(), null));
+
+        // The unfiltered listing's tag must not answer a listing filtered on the activity "null"
+        String unfiltered = version.trainingsETag("json", null, null, null, null, 10);
+        mockMvc.perform(get("/api/dogs/1/trainings").param("activity", "null").param("limit", "10")
+                        .header("If-None-Match", unfiltered))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", version.trainingsETag("json", "null", null, null, null, 10)));
+
+        assertThat(version.trainingsETag("json", "Spår", null, null, null, 10))
+                .isNotEqualTo(version.trainingsETag("json", "Spår", null, null, null, 1))
+                .isNotEqualTo(version.trainingsETag("json", "Spå", "r", null, null, 10))
+                .isNotEqualTo(version.trainingsETag("cbor", "Spår", null, null, null, 10));
+    }
 }
@@ -0,0 +1,137 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.dto.CursorPage;
+import com.example.dogtrainingtracker.dto.DogRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.errorhandling.DogNotFoundException;
+import com.example.dogtrainingtracker.errorhandling.DogTrainingNotFoundException;
+import com.example.dogtrainingtracker.repository.DogPurgeRepository;
+import com.example.dogtrainingtracker.service.DogPurger;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import com.example.dogtrainingtracker.service.TrainingSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Deleting a dog hides it and its trainings at once; the purger then removes the rows in bounded chunks
+@SpringBootTest
+@ActiveProfiles("test")
+class DogSoftDeleteTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogTrainingService trainingService;
+
+    @Autowired
+    private DogPurger dogPurger;
+
+    @Autowired
+    private DogPurgeRepository purgeRepository;
+
+    @Autowired
+    private TrainingSearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+    private final Authentication admin = new UsernamePasswordAuthenticationToken("admin", null, List.of());
+
+    private Integer dogWithTrainings(int trainings) {
+        Integer dogId = dogService.createDog(new DogRequestDTO("Sigge", "Tax", LocalDate.of(2020, 5, 1)), user).id();
+        trainingService.createTrainings(IntStream.range(0, trainings)
+                .mapToObj(i -> new DogTrainingRequestDTO("Lydnad", "Hundparken", LocalDate.now().minusDays(i), 30, null, dogId))
+                .toList(), user);
+        return dogId;
+    }
+
+    // Every hot training dated from..today that admin sees, walked page by page so none are missed
+    private List<DogTrainingResponseDTO> allTrainingsFrom(LocalDate from) {
+        List<DogTrainingResponseDTO> trainings = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<DogTrainingResponseDTO> page = trainingService.getAllTrainings(from, null, cursor, 100, admin);
+            trainings.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return trainings;
+    }
+
+    private long rows(String table, String column, Integer dogId) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where " + column + " = ?", Long.class, dogId);
+    }
+
+    @Test
+    void deletedDog_shouldBeHiddenAtOnceAndPurgedLater() throws InterruptedException {
+        Integer dogId = dogWithTrainings(25);
+        Integer trainingId = trainingService.getTrainingsByDogId(dogId, null, null, null, 1, user).items().getFirst().id();
+        LocalDate from = LocalDate.now().minusDays(24);
+        assertThat(allTrainingsFrom(from)).filteredOn(training -> training.dogId().equals(dogId)).hasSize(25);
+
+        dogService.deleteDog(dogId, user);
+
+        assertThatThrownBy(() -> dogService.getDogById(dogId, admin)).isInstanceOf(DogNotFoundException.class);
+        assertThatThrownBy(() -> trainingService.getTrainingById(trainingId, admin))
+                .isInstanceOf(DogTrainingNotFoundException.class);
+        assertThat(allTrainingsFrom(from)).noneMatch(training -> training.dogId().equals(dogId));
+        assertThat(rows("training_summary", "dog_id", dogId)).isZero();
+
+        dogPurger.purgeDeletedDogs();
+
+        assertThat(rows("dog_training", "dog_id", dogId)).isZero();
+        assertThat(rows("dog", "id", dogId)).isZero();
+    }
+
+    @Test
+    void search_shouldFillThePageAfterSkippingADeletedDogsTrainings() {
+        Integer keptDogId = dogService.createDog(new DogRequestDTO("Majken", "Pudel", LocalDate.of(2019, 2, 1)), user).id();
+        Integer deletedDogId = dogService.createDog(new DogRequestDTO("Loke", "Tax", LocalDate.of(2019, 3, 1)), user).id();
+        List<Integer> kept = IntStream.range(0, 2).mapToObj(i -> searchable(keptDogId)).toList();
+        // Newer, so the index ranks them first until the purger removes them
+        IntStream.range(0, 3).forEach(i -> searchable(deletedDogId));
+
+        dogService.deleteDog(deletedDogId, user);
+
+        assertThat(searchService.search("Gömställe", 2, admin)).extracting(DogTrainingResponseDTO::id)
+                .containsExactlyElementsOf(kept.reversed());
+    }
+
+    private Integer searchable(Integer dogId) {
+        return trainingService.createTraining(
+                new DogTrainingRequestDTO("Nosarbete", "Gömställe", LocalDate.now(), 15, null, dogId), user).id();
+    }
+
+    @Test
+    void trainingChunk_shouldBeBounded() throws InterruptedException {
+        Integer dogId = dogWithTrainings(25);
+
+        List<Integer> removed = transactionTemplate.execute(status -> purgeRepository.deleteTrainingChunk(dogId, 10));
+
+        assertThat(removed).hasSize(10);
+        assertThat(rows("dog_training", "dog_id", dogId)).isEqualTo(15);
+
+        dogService.deleteDog(dogId, user);
+        dogPurger.purgeDeletedDogs();
+        assertThat(rows("dog", "id", dogId)).isZero();
+    }
+}
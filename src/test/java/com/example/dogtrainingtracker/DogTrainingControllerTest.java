@@ -1,29 +1,39 @@
 package com.example.dogtrainingtracker;
 
+import com.example.dogtrainingtracker.config.BinaryFormatsConfig;
 import com.example.dogtrainingtracker.controller.DogTrainingController;
+import com.example.dogtrainingtracker.dto.CursorPage;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
 import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
 import com.example.dogtrainingtracker.service.DogService;
 import com.example.dogtrainingtracker.service.DogTrainingService;
+import com.example.dogtrainingtracker.service.TrainingExportService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 
 @WebMvcTest(DogTrainingController.class)
+@Import(BinaryFormatsConfig.class)
 class DogTrainingControllerRoleBasedTest {
 
     @Autowired
@@ -35,6 +45,9 @@ class DogTrainingControllerRoleBasedTest {
     @MockitoBean
     private DogTrainingService dogTrainingService;
 
+    @MockitoBean
+    private TrainingExportService trainingExportService;
+
     private DogTrainingResponseDTO createMockTraining(Integer id, String activity, Integer dogId) {
         // Create a mock Dog training entity
         com.example.dogtrainingtracker.entities.DogTraining mockTraining = new com.example.dogtrainingtracker.entities.DogTraining();
@@ -63,16 +76,51 @@ class DogTrainingControllerRoleBasedTest {
                 createMockTraining(2, "Obedience", 2)
         );
 
-        when(dogTrainingService.getAllTrainings(any())).thenReturn(allTrainings);
+        when(dogTrainingService.getAllTrainings(any(), any(), any(), anyInt(), any())).thenReturn(new CursorPage<>(allTrainings, null));
 
         mockMvc.perform(get("/api/dogtraining")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].activity").value("Agility"))
                 .andExpect(jsonPath("$[1].activity").value("Obedience"));
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void getAllTrainings_shouldReturnNextCursorWhenMorePagesExist() throws Exception {
+        List<DogTrainingResponseDTO> firstPage = List.of(createMockTraining(1, "Agility", 1));
+
+        when(dogTrainingService.getAllTrainings(any(), any(), any(), eq(1), any())).thenReturn(new CursorPage<>(firstPage, "abc"));
+
+        mockMvc.perform(get("/api/dogtraining")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "abc"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getAllTrainings_shouldReturnCborWhenAccepted() throws Exception {
+        when(dogTrainingService.getAllTrainings(any(), any(), any(), anyInt(), any()))
+                .thenReturn(new CursorPage<>(List.of(createMockTraining(1, "Agility", 1)), null));
+
+        byte[] body = mockMvc.perform(get("/api/dogtraining")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode trainings = BinaryFormatsConfig.cborMapper().readTree(body);
+        assertThat(trainings.size()).isEqualTo(1);
+        assertThat(trainings.get(0).get("activity").asString()).isEqualTo("Agility");
+        // Dates as [year, month, day] rather than ISO text
+        assertThat(trainings.get(0).get("trainingDate").isArray()).isTrue();
+    }
+
     @Test
     void getAllTrainings_unauthenticated_shouldReturn401() throws Exception {
         mockMvc.perform(get("/api/dogtraining"))
@@ -108,6 +156,24 @@ class DogTrainingControllerRoleBasedTest {
                 .andExpect(jsonPath("$.location").value("Park"));
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void createTraining_shouldAcceptSmileBody() throws Exception {
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        when(dogTrainingService.createTraining(any(), any())).thenReturn(createMockTraining(10, "Agility", 1));
+
+        byte[] body = BinaryFormatsConfig.smileMapper().writeValueAsBytes(new DogTrainingRequestDTO(
+                "Agility", "Park", LocalDate.of(2024, 10, 10), 30, "Good progress", 1));
+
+        mockMvc.perform(post("/api/dogtraining")
+                        .with(csrf())
+                        .contentType(smile)
+                        .accept(smile)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(smile));
+    }
+
     @Test
     void createTraining_unauthenticated_shouldReturn401() throws Exception {
         String jsonBody = """
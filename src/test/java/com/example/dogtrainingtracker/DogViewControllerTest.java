@@ -0,0 +1,159 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.controller.DogViewController;
+import com.example.dogtrainingtracker.dto.CursorPage;
+import com.example.dogtrainingtracker.dto.DogResponseDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.DogVersionDTO;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesRegex;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DogViewController.class)
+class DogViewControllerTest {
+
+    private static final DogVersionDTO VERSION = new DogVersionDTO(1, 2, LocalDateTime.of(2025, 1, 1, 12, 0), 7);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DogService dogService;
+
+    @MockitoBean
+    private DogTrainingService dogTrainingService;
+
+    private static DogTrainingResponseDTO training(Integer id, String activity) {
+        return new DogTrainingResponseDTO(id, activity, "Skogen", LocalDate.of(2025, 1, 1), 30, "", 1,
+                LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void dogDetails_shouldRenderOnePageWithNextLink() throws Exception {
+        when(dogService.getDogVersion(any(), any())).thenReturn(VERSION);
+        when(dogService.getDogById(any(), any())).thenReturn(new DogResponseDTO(1, "Buddy", "Golden Retriever",
+                LocalDate.of(2020, 1, 1), "user"));
+        when(dogTrainingService.getRecentTrainingsByDogId(eq(1), any(), anyInt(), any()))
+                .thenReturn(new CursorPage<>(List.of(training(5, "Spår")), "next-token"));
+
+        mockMvc.perform(get("/dogs/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "private, no-cache"))
+                .andExpect(content().string(containsString("Spår")))
+                .andExpect(content().string(containsString("cursor=next-token")))
+                .andExpect(content().string(matchesRegex("(?s).*/css/style-[0-9a-f]{32}\\.css.*")));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void dogDetails_shouldReturnNotModifiedWithoutLoadingTrainings() throws Exception {
+        when(dogService.getDogVersion(any(), any())).thenReturn(VERSION);
+
+        mockMvc.perform(get("/dogs/1").header("If-None-Match", VERSION.trainingsETag(VERSION.version(), null)))
+                .andExpect(status().isNotModified());
+
+        verify(dogTrainingService, never()).getRecentTrainingsByDogId(any(), any(), anyInt(), any());
+        verify(dogService, never()).getDogById(any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void addTraining_shouldRedirectAfterPost() throws Exception {
+        when(dogService.addTrainingForDog(eq(1), any(), any())).thenReturn(training(9, "Lydnad"));
+
+        mockMvc.perform(post("/dogs/1/trainings").with(csrf())
+                        .param("activity", "Lydnad")
+                        .param("location", "Klubben")
+                        .param("trainingDate", "2025-01-01")
+                        .param("durationMinutes", "30")
+                        .param("dogId", "1"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/dogs/1"))
+                .andExpect(flash().attribute("successMessage", "Träning sparad"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void addTrainingFragment_shouldReturnOnlyTheNewRow() throws Exception {
+        when(dogService.addTrainingForDog(eq(1), any(), any())).thenReturn(training(9, "Lydnad"));
+
+        mockMvc.perform(post("/dogs/1/trainings").with(csrf())
+                        .header("X-Fragment", "true")
+                        .param("activity", "Lydnad")
+                        .param("location", "Klubben")
+                        .param("trainingDate", "2025-01-01")
+                        .param("durationMinutes", "30")
+                        .param("dogId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<tr>")))
+                .andExpect(content().string(containsString("Lydnad")))
+                .andExpect(content().string(containsString("/dogs/1/trainings/9/delete")))
+                .andExpect(content().string(not(containsString("<html"))));
+
+        verify(dogService, never()).getDogById(any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void addTrainingFragment_shouldReturnFormWithErrors() throws Exception {
+        mockMvc.perform(post("/dogs/1/trainings").with(csrf())
+                        .header("X-Fragment", "true")
+                        .param("activity", "")
+                        .param("location", "Klubben")
+                        .param("trainingDate", "2025-01-01")
+                        .param("durationMinutes", "30")
+                        .param("dogId", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Activity is required")))
+                .andExpect(content().string(not(containsString("<table"))));
+
+        verify(dogService, never()).addTrainingForDog(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void fingerprintedAsset_shouldBeCachedForAYear() throws Exception {
+        String hash = DigestUtils.md5DigestAsHex(new ClassPathResource("static/css/style.css").getInputStream());
+
+        mockMvc.perform(get("/css/style-" + hash + ".css"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=31536000")))
+                .andExpect(header().string("Cache-Control", containsString("immutable")));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void deleteTrainingFragment_shouldReturnNoContent() throws Exception {
+        mockMvc.perform(post("/dogs/1/trainings/9/delete").with(csrf()).header("X-Fragment", "true"))
+                .andExpect(status().isNoContent());
+
+        verify(dogTrainingService).deleteTraining(eq(9), any());
+    }
+}
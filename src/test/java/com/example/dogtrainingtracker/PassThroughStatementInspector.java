@@ -0,0 +1,12 @@
+package com.example.dogtrainingtracker;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Replaces RecordingStatementInspector in the perf profile; a profile cannot unset the test profile's inspector
+public class PassThroughStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        return sql;
+    }
+}
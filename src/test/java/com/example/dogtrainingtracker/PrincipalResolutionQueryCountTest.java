@@ -0,0 +1,89 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.entities.User;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Counts the SQL statements per request on the REST endpoints,
+// with the principal cache cold (one users lookup per request) and warm (no lookup)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PrincipalResolutionQueryCountTest {
+
+    private static final int REQUESTS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Test
+    @WithUserDetails("user")
+    void warmPrincipalCache_shouldIssueFewerQueriesPerRequest() throws Exception {
+        Integer userId = userRepository.findByUsername("user").orElseThrow().getId();
+        Dog dog = dogRepository.findByOwnerId(userId).getFirst();
+
+        List<String> endpoints = List.of(
+                "/api/dogs",
+                "/api/dogs/" + dog.getId(),
+                "/api/dogs/" + dog.getId() + "/trainings",
+                "/api/dogtraining"
+        );
+
+        for (String endpoint : endpoints) {
+            double cold = statementsPerRequest(endpoint, true);
+            double warm = statementsPerRequest(endpoint, false);
+
+            // The failure message shows both averages
+            assertThat(warm).as("%s statements/request, cold %.1f", endpoint, cold).isLessThanOrEqualTo(cold - 1);
+        }
+    }
+
+    private double statementsPerRequest(String endpoint, boolean evictBeforeEachRequest) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Prime the cache so the warm run only measures cache hits
+        mockMvc.perform(get(endpoint)).andExpect(status().isOk());
+        statistics.clear();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            if (evictBeforeEachRequest) {
+                currentUserResolver.evictAll();
+                // The users row would otherwise come from the second-level cache
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+                entityManagerFactory.getCache().evict(User.class);
+            }
+            mockMvc.perform(get(endpoint)).andExpect(status().isOk());
+        }
+        return (double) statistics.getPrepareStatementCount() / REQUESTS;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.entities.TrainingPeriod;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import com.example.dogtrainingtracker.repository.TrainingSummaryRepository;
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.security.CurrentUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.dogtrainingtracker.security.AccessSpecifications.dogWithId;
+import static com.example.dogtrainingtracker.security.AccessSpecifications.dogsAccessibleBy;
+import static com.example.dogtrainingtracker.security.AccessSpecifications.trainingWithId;
+import static com.example.dogtrainingtracker.security.AccessSpecifications.trainingsAccessibleBy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+// Runs every selective repository query method against the migrated schema, captures the SQL
+// Hibernate generates and fails if the database plans a full table scan for any of them.
+// Methods that read whole tables by design (admin listings, exports, summary rebuild) are not listed.
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositoryQueryPlanTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 1);
+    private static final CurrentUser OWNER = new CurrentUser(1, "user", "ROLE_USER", true);
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private DogTrainingRepository trainingRepository;
+
+    @Autowired
+    private TrainingSummaryRepository summaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repositoryQueries_shouldNotFallBackToTableScans() throws SQLException {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername("user"));
+
+        queries.put("DogRepository.findByOwnerId", () -> dogRepository.findByOwnerId(1));
+        queries.put("DogRepository.findByIdAndOwnerId", () -> dogRepository.findByIdAndOwnerId(1, 1));
+        queries.put("DogRepository.existsByIdAndOwnerId", () -> dogRepository.existsByIdAndOwnerId(1, 1));
+        queries.put("DogRepository.findIdsByIdIn", () -> dogRepository.findIdsByIdIn(Set.of(1, 2)));
+        queries.put("DogRepository.findIdsByIdInAndOwnerId", () -> dogRepository.findIdsByIdInAndOwnerId(Set.of(1, 2), 1));
+        queries.put("DogRepository.findDtosByOwnerId", () -> dogRepository.findDtosByOwnerId(1));
+        queries.put("DogRepository.findDtoById", () -> dogRepository.findDtoById(1));
+        queries.put("DogRepository.findDtoByIdAndOwnerId", () -> dogRepository.findDtoByIdAndOwnerId(1, 1));
+        queries.put("DogRepository.findPageAfter", () -> dogRepository.findPageAfter(0, Limit.of(10)));
+        queries.put("DogRepository.findPageByOwnerIdAfter", () -> dogRepository.findPageByOwnerIdAfter(1, 0, Limit.of(10)));
+
+        queries.put("DogRepository.exists(dogWithId, dogsAccessibleBy)",
+                () -> dogRepository.exists(dogWithId(1).and(dogsAccessibleBy(OWNER))));
+
+        queries.put("DogTrainingRepository.findByDogId", () -> trainingRepository.findByDogId(1));
+        queries.put("DogTrainingRepository.findByDogIdAndActivity", () -> trainingRepository.findByDogIdAndActivity(1, "Lydnad"));
+        queries.put("DogTrainingRepository.findByDogOwnerId", () -> trainingRepository.findByDogOwnerId(1));
+        queries.put("DogTrainingRepository.findByIdAndDogOwnerId", () -> trainingRepository.findByIdAndDogOwnerId(1, 1));
+        queries.put("DogTrainingRepository.findPageAfter", () -> trainingRepository.findPageAfter(DATE, 0, DATE.plusMonths(1), Limit.of(10)));
+        queries.put("DogTrainingRepository.findPageByDogOwnerIdAfter", () -> trainingRepository.findPageByDogOwnerIdAfter(1, DATE, 0, DATE.plusMonths(1), Limit.of(10)));
+        queries.put("DogTrainingRepository.findPageByDogIdAfter", () -> trainingRepository.findPageByDogIdAfter(1, 1, DATE, 0, DATE.plusMonths(1), Limit.of(10)));
+        queries.put("DogTrainingRepository.findPageByDogIdBefore", () -> trainingRepository.findPageByDogIdBefore(1, 1, DATE, Integer.MAX_VALUE, Limit.of(10)));
+        queries.put("DogTrainingRepository.findPageByDogIdAndActivityAfter", () -> trainingRepository.findPageByDogIdAndActivityAfter(1, 1, "Lydnad", DATE, 0, DATE.plusMonths(1), Limit.of(10)));
+
+        queries.put("DogTrainingRepository.findOne(trainingWithId, trainingsAccessibleBy)",
+                () -> trainingRepository.findOne(trainingWithId(1).and(trainingsAccessibleBy(OWNER))));
+
+        queries.put("TrainingSummaryRepository.findStatsByDogId", () -> summaryRepository.findStatsByDogId(1, TrainingPeriod.WEEK, DATE, DATE));
+        queries.put("TrainingSummaryRepository.findStatsByOwnerId", () -> summaryRepository.findStatsByOwnerId(1, TrainingPeriod.WEEK, DATE, DATE));
+        queries.put("TrainingSummaryRepository.findStatsForAllDogs", () -> summaryRepository.findStatsForAllDogs(TrainingPeriod.WEEK, DATE, DATE));
+
+        // Cached query results would skip the SQL we want to explain
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        Map<String, String> plans = new LinkedHashMap<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            RecordingStatementInspector.clear();
+            query.getValue().run();
+
+            List<String> statements = RecordingStatementInspector.statements();
+            assertThat(statements).as(query.getKey()).isNotEmpty();
+            for (String sql : statements) {
+                plans.put(query.getKey() + ": " + sql, explain(sql));
+            }
+        }
+
+        assertSoftly(softly -> plans.forEach((query, plan) -> softly.assertThat(plan)
+                .as(query + "\n" + plan)
+                .doesNotContainIgnoringCase("tableScan")));
+    }
+
+    // H2 prints the chosen index per table, or <table>.tableScan when it has to read every row
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + sql);
+             ResultSet plan = statement.executeQuery()) {
+            StringBuilder text = new StringBuilder();
+            while (plan.next()) {
+                text.append(plan.getString(1)).append('\n');
+            }
+            return text.toString();
+        }
+    }
+}
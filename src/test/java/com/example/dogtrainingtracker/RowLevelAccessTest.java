@@ -0,0 +1,78 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.errorhandling.DogNotFoundException;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The owner-or-admin rule is part of the trainings query: an authorized read is one statement,
+// and another owner's dog is a 404 without the dog entity ever being loaded
+@SpringBootTest
+@ActiveProfiles("test")
+class RowLevelAccessTest {
+
+    @Autowired
+    private DogTrainingService trainingService;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void warmPrincipalCache() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        trainingService.getAllTrainings(null, null, null, 1, user);
+    }
+
+    @Test
+    void ownDog_shouldCostOneStatement() {
+        Dog ownDog = dogOf("user");
+
+        statistics.clear();
+        var page = trainingService.getTrainingsByDogId(ownDog.getId(), null, null, null, 10, user);
+
+        assertThat(page.items()).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void otherOwnersDog_shouldBeNotFoundWithoutLoadingIt() {
+        Dog othersDog = dogOf("admin");
+
+        statistics.clear();
+        assertThatThrownBy(() -> trainingService.getTrainingsByDogId(othersDog.getId(), null, null, null, 10, user))
+                .isInstanceOf(DogNotFoundException.class);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private Dog dogOf(String username) {
+        Integer ownerId = userRepository.findByUsername(username).orElseThrow().getId();
+        return dogRepository.findByOwnerId(ownerId).getFirst();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.entities.Dog;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dog lookups by id are served from the second-level cache and see updates made through the entity
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void findById_shouldHitCacheAndSeeUpdates() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Integer dogId = dogRepository.findAll().getFirst().getId();
+        entityManagerFactory.getCache().evict(Dog.class);
+
+        dogRepository.findById(dogId).orElseThrow();
+        statistics.clear();
+        dogRepository.findById(dogId).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Dog dog = dogRepository.findById(dogId).orElseThrow();
+            dog.setName(dog.getName() + " Jr");
+        });
+
+        Dog reloaded = dogRepository.findById(dogId).orElseThrow();
+        assertThat(reloaded.getName()).endsWith(" Jr");
+        assertThat(entityManagerFactory.getCache().contains(Dog.class, dogId)).isTrue();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Dog dog = dogRepository.findById(dogId).orElseThrow();
+            dog.setName(dog.getName().substring(0, dog.getName().length() - 3));
+        });
+    }
+}
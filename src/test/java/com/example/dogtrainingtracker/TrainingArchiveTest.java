@@ -0,0 +1,205 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.dto.CursorPage;
+import com.example.dogtrainingtracker.dto.DogRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.ExportFormat;
+import com.example.dogtrainingtracker.repository.TrainingArchiveRepository;
+import com.example.dogtrainingtracker.service.DogPurger;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import com.example.dogtrainingtracker.service.TrainingArchiveService;
+import com.example.dogtrainingtracker.service.TrainingArchiver;
+import com.example.dogtrainingtracker.service.TrainingExportService;
+import com.example.dogtrainingtracker.service.TrainingStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Trainings older than the cutoff move to training_archive, and the dog's reads, the export
+// and the statistics rebuild still see all of them
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingArchiveTest {
+
+    // Older than anything other tests write, so only this test's trainings are archived
+    private static final LocalDate OLD = LocalDate.of(1990, 1, 1);
+    private static final LocalDate CUTOFF = LocalDate.of(1991, 1, 1);
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogTrainingService trainingService;
+
+    @Autowired
+    private TrainingArchiver archiver;
+
+    @Autowired
+    private TrainingExportService exportService;
+
+    @Autowired
+    private TrainingStatisticsService statisticsService;
+
+    @Autowired
+    private DogPurger dogPurger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TrainingArchiveRepository archiveRepository;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+    private Integer dogId;
+    private List<DogTrainingResponseDTO> before;
+
+    // Twelve weekly trainings in 1990 and three recent ones, alternating activities
+    @BeforeEach
+    void createTrainings() {
+        dogId = dogService.createDog(new DogRequestDTO("Doris", "Beagle", LocalDate.of(1989, 6, 1)), user).id();
+        List<DogTrainingRequestDTO> trainings = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            LocalDate date = i < 12 ? OLD.plusWeeks(i) : LocalDate.now().minusDays(i - 12);
+            trainings.add(new DogTrainingRequestDTO(i % 2 == 0 ? "Lydnad" : "Spår", "Skogen", date, 10 + i, null, dogId));
+        }
+        trainingService.createTrainings(trainings, user);
+        before = readAll(cursor -> trainingService.getTrainingsByDogId(dogId, null, null, cursor, 4, user));
+    }
+
+    @Test
+    void archiving_shouldMoveOnlyOldTrainings() {
+        assertThat(archiver.archiveBefore(CUTOFF)).isEqualTo(12);
+
+        assertThat(count("select count(*) from dog_training where dog_id = ?")).isEqualTo(3);
+        assertThat(count("select count(*) from training_archive where dog_id = ?")).isEqualTo(1);
+        assertThat(archiver.archiveBefore(CUTOFF)).isZero();
+    }
+
+    @Test
+    void pages_shouldMergeHotAndArchivedTrainings() {
+        archiver.archiveBefore(CUTOFF);
+
+        List<Integer> ids = before.stream().map(DogTrainingResponseDTO::id).toList();
+        assertThat(readAll(cursor -> trainingService.getTrainingsByDogId(dogId, null, null, cursor, 4, user)))
+                .extracting(DogTrainingResponseDTO::id).isEqualTo(ids);
+        assertThat(readAll(cursor -> trainingService.getRecentTrainingsByDogId(dogId, cursor, 4, user)))
+                .extracting(DogTrainingResponseDTO::id).isEqualTo(ids.reversed());
+    }
+
+    @Test
+    void archivedTrainings_shouldBeMarkedReadOnly() {
+        archiver.archiveBefore(CUTOFF);
+
+        List<DogTrainingResponseDTO> after = readAll(cursor -> trainingService.getTrainingsByDogId(dogId, null, null, cursor, 4, user));
+        assertThat(after).filteredOn(DogTrainingResponseDTO::archived).hasSize(12)
+                .allSatisfy(training -> assertThat(training.trainingDate()).isBefore(CUTOFF));
+        // Apart from the flag, an archived training reads back exactly as it was stored
+        assertThat(after).usingRecursiveFieldByFieldElementComparatorIgnoringFields("archived").isEqualTo(before);
+    }
+
+    @Test
+    void archiving_shouldBumpTheTrainingsVersion() {
+        long version = dogService.getDogVersion(dogId, user).trainingsVersion();
+
+        archiver.archiveBefore(CUTOFF);
+
+        assertThat(dogService.getDogVersion(dogId, user).trainingsVersion()).isGreaterThan(version);
+    }
+
+    @Test
+    void instanceNotArchiving_shouldSeeSegmentsOfOtherInstances() {
+        // Later than any training the other tests archive
+        LocalDate late = LocalDate.of(1990, 12, 1);
+        trainingService.createTraining(new DogTrainingRequestDTO("Spår", "Skogen", late, 10, null, dogId), user);
+
+        // Other instances with archiving off: one re-reads the bound on every call, one would keep it for a day
+        TrainingArchiveService fresh = new TrainingArchiveService(archiveRepository, false, Period.ofYears(2), Duration.ZERO);
+        TrainingArchiveService stale = new TrainingArchiveService(archiveRepository, false, Period.ofYears(2), Duration.ofDays(1));
+        assertThat(fresh.archivedBefore()).isBeforeOrEqualTo(late);
+        assertThat(stale.archivedBefore()).isBeforeOrEqualTo(late);
+
+        archiver.archiveBefore(CUTOFF);
+
+        assertThat(fresh.archivedBefore()).isAfter(late);
+        assertThat(stale.archivedBefore()).isBeforeOrEqualTo(late);
+    }
+
+    @Test
+    void ranges_shouldReadArchivedTrainings() {
+        archiver.archiveBefore(CUTOFF);
+
+        var page = trainingService.getTrainingsByDogIdAndActivity(
+                dogId, "Spår", OLD.plusWeeks(2), OLD.plusWeeks(6), null, 50, user);
+        assertThat(page.items()).extracting(DogTrainingResponseDTO::trainingDate)
+                .containsExactly(OLD.plusWeeks(3), OLD.plusWeeks(5));
+
+        var recent = trainingService.getTrainingsByDogId(dogId, LocalDate.now().minusDays(30), null, null, 50, user);
+        assertThat(recent.items()).hasSize(3);
+    }
+
+    @Test
+    void export_shouldIncludeArchivedTrainings() throws Exception {
+        archiver.archiveBefore(CUTOFF);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTrainings(ExportFormat.CSV, user, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(before).allSatisfy(training -> assertThat(csv).contains("\n" + training.id() + "," + dogId + ","));
+    }
+
+    @Test
+    void statisticsRebuild_shouldCountArchivedTrainings() {
+        archiver.archiveBefore(CUTOFF);
+
+        statisticsService.rebuild();
+
+        assertThat(count("select sum(session_count) from training_summary where period_type = 'WEEK' and dog_id = ?"))
+                .isEqualTo(15);
+    }
+
+    @Test
+    void purge_shouldRemoveArchivedTrainings() throws InterruptedException {
+        archiver.archiveBefore(CUTOFF);
+
+        dogService.deleteDog(dogId, user);
+        dogPurger.purgeDeletedDogs();
+
+        assertThat(count("select count(*) from training_archive where dog_id = ?")).isZero();
+        assertThat(count("select count(*) from dog where id = ?")).isZero();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, dogId);
+    }
+
+    private static List<DogTrainingResponseDTO> readAll(Function<String, CursorPage<DogTrainingResponseDTO>> pages) {
+        List<DogTrainingResponseDTO> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<DogTrainingResponseDTO> page = pages.apply(cursor);
+            rows.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return rows;
+    }
+}
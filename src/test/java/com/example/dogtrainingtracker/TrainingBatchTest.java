@@ -0,0 +1,91 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /api/dogtraining/batch reports every item in its position; failed items do not stop the others
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TrainingBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DogTrainingRepository trainingRepository;
+
+    @Test
+    void mixedBatch_shouldReportEachItem() throws Exception {
+        Integer ownDogId = dogIdOf("user");
+        Integer othersDogId = dogIdOf("admin");
+
+        String body = mockMvc.perform(post("/api/dogtraining/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + issueToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"activity": "Spår", "location": "Skogen", "trainingDate": "2025-02-01",
+                                   "durationMinutes": 30, "notes": "Satsvis", "dogId": %d},
+                                  {"activity": "Spår", "location": "Skogen", "trainingDate": "2025-02-01",
+                                   "durationMinutes": 30, "dogId": %d},
+                                  {"activity": "", "location": "Skogen", "trainingDate": "2025-02-01",
+                                   "durationMinutes": 30, "dogId": %d},
+                                  null
+                                ]
+                                """.formatted(ownDogId, othersDogId, ownDogId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].training.dogId").value(ownDogId))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].training").doesNotExist())
+                .andExpect(jsonPath("$[2].status").value(400))
+                .andExpect(jsonPath("$[2].error").value("Activity is required"))
+                .andExpect(jsonPath("$[3].index").value(3))
+                .andExpect(jsonPath("$[3].status").value(400))
+                .andReturn().getResponse().getContentAsString();
+
+        Integer createdId = JsonPath.read(body, "$[0].training.id");
+        assertThat(trainingRepository.findById(createdId)).hasValueSatisfying(training ->
+                assertThat(training.getNotes()).isEqualTo("Satsvis"));
+    }
+
+    private String issueToken() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"username": "user", "password": "password"}
+                                """))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.accessToken");
+    }
+
+    private Integer dogIdOf(String username) {
+        Integer ownerId = userRepository.findByUsername(username).orElseThrow().getId();
+        return dogRepository.findByOwnerId(ownerId).getFirst().getId();
+    }
+}
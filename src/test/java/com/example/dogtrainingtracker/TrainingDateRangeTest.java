@@ -0,0 +1,108 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.dto.CursorPage;
+import com.example.dogtrainingtracker.dto.DogRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// from/to narrow the keyset pages to an inclusive range of training dates, alone or with an activity
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingDateRangeTest {
+
+    private static final LocalDate START = LocalDate.of(2001, 3, 1);
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogTrainingService trainingService;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+    private Integer dogId;
+
+    // One training a day for ten days, alternating activities
+    @BeforeEach
+    void createTrainings() {
+        dogId = dogService.createDog(new DogRequestDTO("Ronja", "Pudel", LocalDate.of(1999, 4, 1)), user).id();
+        List<DogTrainingRequestDTO> trainings = new ArrayList<>();
+        for (int day = 0; day < 10; day++) {
+            String activity = day % 2 == 0 ? "Lydnad" : "Spår";
+            trainings.add(new DogTrainingRequestDTO(activity, "Skogen", START.plusDays(day), 30, null, dogId));
+        }
+        trainingService.createTrainings(trainings, user);
+    }
+
+    @Test
+    void range_shouldIncludeBothEnds() {
+        var page = trainingService.getTrainingsByDogId(dogId, START.plusDays(2), START.plusDays(5), null, 50, user);
+
+        assertThat(page.items()).extracting(DogTrainingResponseDTO::trainingDate)
+                .containsExactly(START.plusDays(2), START.plusDays(3), START.plusDays(4), START.plusDays(5));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void openEndedRange_shouldReadToTheEnd() {
+        var page = trainingService.getTrainingsByDogId(dogId, START.plusDays(8), null, null, 50, user);
+
+        assertThat(page.items()).extracting(DogTrainingResponseDTO::trainingDate)
+                .containsExactly(START.plusDays(8), START.plusDays(9));
+    }
+
+    @Test
+    void rangeWithActivity_shouldApplyBoth() {
+        var page = trainingService.getTrainingsByDogIdAndActivity(
+                dogId, "Spår", START.plusDays(2), START.plusDays(6), null, 50, user);
+
+        assertThat(page.items()).extracting(DogTrainingResponseDTO::trainingDate)
+                .containsExactly(START.plusDays(3), START.plusDays(5));
+    }
+
+    @Test
+    void cursor_shouldStayInsideTheRange() {
+        List<LocalDate> dates = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<DogTrainingResponseDTO> page = trainingService.getTrainingsByDogId(
+                    dogId, START.plusDays(1), START.plusDays(7), cursor, 3, user);
+            page.items().forEach(training -> dates.add(training.trainingDate()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(dates).hasSize(7).allSatisfy(date -> assertThat(date).isBetween(START.plusDays(1), START.plusDays(7)));
+    }
+
+    @Test
+    void allTrainings_shouldBeLimitedToTheRange() {
+        var page = trainingService.getAllTrainings(START.plusDays(4), START.plusDays(4), null, 50, user);
+
+        assertThat(page.items()).isNotEmpty()
+                .allSatisfy(training -> assertThat(training.trainingDate()).isEqualTo(START.plusDays(4)));
+    }
+
+    @Test
+    void reversedRange_shouldBeBadRequest() {
+        assertThatThrownBy(() -> trainingService.getTrainingsByDogId(dogId, START.plusDays(5), START, null, 50, user))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("from must not be after to");
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.dto.DogRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.dto.ExportFormat;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.UserRepository;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import com.example.dogtrainingtracker.service.TrainingExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The NDJSON and CSV exports: one row per training of the caller's dogs, RFC 4180 quoting, and output
+// flushed while the rows are still being read
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingExportTest {
+
+    private static final String TRICKY_NOTES = "Sa \"sitt\", sen\nligg";
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogTrainingService trainingService;
+
+    @Autowired
+    private TrainingExportService exportService;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+    @Test
+    void csv_shouldQuoteSeparatorsQuotesAndLineBreaks() throws Exception {
+        DogTrainingResponseDTO training = createTraining("Skogen, norra", TRICKY_NOTES);
+
+        List<List<String>> records = parseCsv(export(ExportFormat.CSV));
+
+        assertThat(records.getFirst()).containsExactly(
+                "id", "dogId", "activity", "location", "trainingDate", "durationMinutes", "notes", "createdAt");
+        assertThat(records).filteredOn(record -> record.getFirst().equals(String.valueOf(training.id())))
+                .singleElement()
+                .satisfies(record -> assertThat(record).hasSize(8).startsWith(
+                        String.valueOf(training.id()), String.valueOf(training.dogId()), "Spår", "Skogen, norra",
+                        "2025-03-01", "25", TRICKY_NOTES));
+    }
+
+    @Test
+    void ndjson_shouldWriteOneObjectPerLineForOwnDogsOnly() throws Exception {
+        DogTrainingResponseDTO training = createTraining("Skogen", TRICKY_NOTES);
+        Integer ownerId = userRepository.findByUsername("user").orElseThrow().getId();
+        Set<Integer> ownDogIds = dogRepository.findIdsByOwnerId(ownerId);
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : export(ExportFormat.NDJSON).split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+
+        assertThat(rows).isNotEmpty()
+                .allSatisfy(row -> assertThat(ownDogIds).contains(row.get("dogId").asInt()));
+        assertThat(rows).filteredOn(row -> row.get("id").asInt() == training.id())
+                .singleElement()
+                .satisfies(row -> assertThat(row.get("notes").asString()).isEqualTo(TRICKY_NOTES));
+    }
+
+    @Test
+    void export_shouldFlushTheHeaderFirstAndThenInChunks() throws Exception {
+        Integer dogId = dogService.createDog(new DogRequestDTO("Stina", "Vorsteh", LocalDate.of(2022, 1, 1)), user).id();
+        for (int batch = 0; batch < 2; batch++) {
+            List<DogTrainingRequestDTO> trainings = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                trainings.add(new DogTrainingRequestDTO("Lydnad", "Planen", LocalDate.of(2024, 1, 1), 10, null, dogId));
+            }
+            trainingService.createTrainings(trainings, user);
+        }
+
+        FlushRecordingStream out = new FlushRecordingStream();
+        exportService.exportTrainings(ExportFormat.CSV, user, out);
+
+        // The header goes out before the query, then every 1000 rows, then the rest
+        assertThat(out.flushedSizes.getFirst()).isEqualTo(
+                "id,dogId,activity,location,trainingDate,durationMinutes,notes,createdAt\n".length());
+        assertThat(out.flushedSizes).hasSizeGreaterThanOrEqualTo(4).isSorted();
+        assertThat(out.flushedSizes.getLast()).isEqualTo(out.size());
+    }
+
+    private DogTrainingResponseDTO createTraining(String location, String notes) {
+        Integer dogId = dogService.createDog(new DogRequestDTO("Exa", "Collie", LocalDate.of(2021, 5, 1)), user).id();
+        return trainingService.createTraining(
+                new DogTrainingRequestDTO("Spår", location, LocalDate.of(2025, 3, 1), 25, notes, dogId), user);
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTrainings(format, user, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // Minimal RFC 4180 reader: quoted fields may hold separators, doubled quotes and line breaks
+    private static List<List<String>> parseCsv(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        return records.stream().map(List::copyOf).collect(Collectors.toList());
+    }
+
+    // Records how many bytes had been written at every flush
+    private static final class FlushRecordingStream extends ByteArrayOutputStream {
+
+        private final List<Integer> flushedSizes = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            flushedSizes.add(size());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.dto.DogRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.repository.DogRepository;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import com.example.dogtrainingtracker.search.TrainingSearchIndex;
+import com.example.dogtrainingtracker.security.CurrentUserResolver;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import com.example.dogtrainingtracker.service.TrainingSearchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A search index snapshot is only trusted when it matches the database's row count and highest id
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingSearchSnapshotTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogTrainingService trainingService;
+
+    @Autowired
+    private DogTrainingRepository trainingRepository;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+    @Test
+    void snapshot_shouldBeRebuiltWhenADeleteAndAnInsertKeepTheCount(@TempDir Path dir) {
+        String snapshotFile = dir.resolve("search-index.bin").toString();
+        Integer dogId = dogService.createDog(new DogRequestDTO("Sigge", "Spets", LocalDate.of(2021, 3, 1)), user).id();
+        DogTrainingResponseDTO deleted = create(dogId, "Ögonblicksbild före");
+
+        // Saved while this instance was "running"
+        synchronize(searchService(snapshotFile));
+
+        // Written by another instance meanwhile: the row count is unchanged
+        trainingService.deleteTraining(deleted.id(), user);
+        DogTrainingResponseDTO added = create(dogId, "Ögonblicksbild efter");
+
+        TrainingSearchService restarted = searchService(snapshotFile);
+        synchronize(restarted);
+
+        assertThat(restarted.search("ögonblicksbild", 10, user)).extracting(DogTrainingResponseDTO::id)
+                .containsExactly(added.id());
+    }
+
+    private TrainingSearchService searchService(String snapshotFile) {
+        return new TrainingSearchService(new TrainingSearchIndex(snapshotFile), trainingRepository, dogRepository,
+                currentUserResolver);
+    }
+
+    // Not a Spring bean, so the streaming reads need the transaction its annotation would have opened
+    private void synchronize(TrainingSearchService searchService) {
+        transactionTemplate.executeWithoutResult(status -> searchService.synchronize());
+    }
+
+    private DogTrainingResponseDTO create(Integer dogId, String notes) {
+        return trainingService.createTraining(
+                new DogTrainingRequestDTO("Spår", "Skogen", LocalDate.of(2025, 4, 1), 15, notes, dogId), user);
+    }
+}
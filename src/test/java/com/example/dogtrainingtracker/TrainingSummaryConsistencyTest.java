@@ -0,0 +1,109 @@
+package com.example.dogtrainingtracker;
+
+import com.example.dogtrainingtracker.dto.DogRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingRequestDTO;
+import com.example.dogtrainingtracker.dto.DogTrainingResponseDTO;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.DogTrainingService;
+import com.example.dogtrainingtracker.service.TrainingStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The incremental training_summary upserts of the create, batch and delete paths leave the table
+// exactly as a fresh rebuild() from dog_training would
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingSummaryConsistencyTest {
+
+    // The last day of a month and a Tuesday, so the next day is in the same week but another month
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 31);
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogTrainingService trainingService;
+
+    @Autowired
+    private TrainingStatisticsService statisticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+    private Integer dogId;
+
+    @BeforeEach
+    void createDog() {
+        dogId = dogService.createDog(new DogRequestDTO("Tussa", "Border terrier", LocalDate.of(2020, 8, 1)), user).id();
+    }
+
+    @Test
+    void singleCreates_shouldMatchRebuild() {
+        trainingService.createTraining(training("Spår", DAY, 30), user);
+        trainingService.createTraining(training("Spår", DAY, 15), user);
+        trainingService.createTrainingForDog(dogId, training("Lydnad", DAY.plusDays(1), 20), user);
+
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void batchCreate_shouldMatchRebuild() {
+        trainingService.createTrainings(List.of(
+                training("Spår", DAY, 30),
+                training("Spår", DAY.minusDays(1), 10),
+                training("Lydnad", DAY.plusDays(1), 20),
+                training("Lydnad", DAY.plusWeeks(2), 45)), user);
+
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void deletes_shouldMatchRebuild() {
+        DogTrainingResponseDTO kept = trainingService.createTraining(training("Spår", DAY, 30), user);
+        DogTrainingResponseDTO sameDay = trainingService.createTraining(training("Spår", DAY, 15), user);
+        // The only training of its week and month, so deleting it must remove those rows, not leave zeros
+        DogTrainingResponseDTO alone = trainingService.createTraining(training("Agility", DAY.plusWeeks(6), 40), user);
+
+        trainingService.deleteTraining(sameDay.id(), user);
+        trainingService.deleteTraining(alone.id(), user);
+
+        assertThat(summary()).allSatisfy(row -> assertThat(((Number) row.get("session_count")).longValue()).isPositive());
+        assertThat(summary()).extracting(row -> row.get("activity")).containsOnly(kept.activity());
+        assertMatchesRebuild();
+    }
+
+    private void assertMatchesRebuild() {
+        List<Map<String, Object>> incremental = summary();
+        assertThat(incremental).isNotEmpty();
+
+        statisticsService.rebuild();
+
+        assertThat(summary()).isEqualTo(incremental);
+    }
+
+    private List<Map<String, Object>> summary() {
+        return jdbcTemplate.queryForList("""
+                select period_type, period_start, activity, session_count, total_minutes
+                from training_summary where dog_id = ?
+                order by period_type, period_start, activity
+                """, dogId);
+    }
+
+    private DogTrainingRequestDTO training(String activity, LocalDate date, int minutes) {
+        return new DogTrainingRequestDTO(activity, "Skogen", date, minutes, null, dogId);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dogtrainingtracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The replica pool gets the primary's driver properties, with its own settings on top
+class ReadReplicaConfigTest {
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig {
+    }
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(DataSourcePropertiesConfig.class, ReadReplicaConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary",
+                    "spring.datasource.hikari.data-source-properties.useCursorFetch=true",
+                    "spring.datasource.hikari.data-source-properties.rewriteBatchedStatements=true",
+                    "tracker.datasource.replica.url=jdbc:h2:mem:replica",
+                    "tracker.datasource.replica.hikari.maximum-pool-size=3",
+                    "tracker.datasource.replica.hikari.data-source-properties.rewriteBatchedStatements=false");
+
+    @Test
+    void replicaPool_shouldInheritThePrimarysDriverProperties() {
+        contextRunner.run(context -> {
+            HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+
+            assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:h2:mem:replica");
+            assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+            assertThat(replica.getDataSourceProperties())
+                    .containsEntry("useCursorFetch", "true")
+                    .containsEntry("rewriteBatchedStatements", "false");
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.dogtrainingtracker.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Each generator writes to its own in-memory H2 database migrated by Flyway, as in the test profile
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+    private static final String CONTENT_SQL = """
+            select u.username, d.name, d.breed, d.birthdate, t.activity, t.location, t.training_date, t.duration_minutes, t.notes
+            from dog_training t join dog d on d.id = t.dog_id join users u on u.id = d.owner_id
+            order by u.username, d.id, t.training_date, t.id
+            """;
+
+    private final List<JdbcTemplate> databases = new ArrayList<>();
+
+    private JdbcTemplate database() {
+        var dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:generator" + databases.size() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        databases.add(jdbc);
+        return jdbc;
+    }
+
+    private static SyntheticDataGenerator generator(JdbcTemplate jdbc) {
+        var transactions = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+        return new SyntheticDataGenerator(jdbc, transactions, "{noop}password", TODAY);
+    }
+
+    private static SyntheticDataGenerator.Settings settings(int threads) {
+        return new SyntheticDataGenerator.Settings(5, 3, 40, 1.0, 2, 7, threads, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databases.forEach(jdbc -> jdbc.execute("shutdown"));
+    }
+
+    @Test
+    void generate_shouldWriteUsersDogsAndTrainings() throws InterruptedException {
+        JdbcTemplate jdbc = database();
+
+        SyntheticDataGenerator.Result result = generator(jdbc).generate(settings(4));
+
+        assertThat(result.users()).isEqualTo(5);
+        assertThat(result.dogs()).isEqualTo(15);
+        assertThat(jdbc.queryForObject("select count(*) from dog_training", Long.class)).isEqualTo(result.trainings());
+        assertThat(jdbc.queryForObject("select count(*) from dog_training where training_date > ?", Long.class, TODAY))
+                .isZero();
+    }
+
+    @Test
+    void sameSeed_shouldGiveSameDataWhateverTheThreadCount() throws InterruptedException {
+        JdbcTemplate first = database();
+        JdbcTemplate second = database();
+
+        generator(first).generate(settings(1));
+        generator(second).generate(settings(4));
+
+        List<Map<String, Object>> content = first.queryForList(CONTENT_SQL);
+        assertThat(content).isNotEmpty();
+        assertThat(second.queryForList(CONTENT_SQL)).isEqualTo(content);
+    }
+
+    @Test
+    void secondRunWithSameSeed_shouldBeSkipped() throws InterruptedException {
+        JdbcTemplate jdbc = database();
+        generator(jdbc).generate(settings(2));
+
+        SyntheticDataGenerator.Result again = generator(jdbc).generate(settings(2));
+
+        assertThat(again.trainings()).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from users", Integer.class)).isEqualTo(5);
+    }
+
+    @Test
+    void trainingCount_shouldKeepTheMeanAndSkewTheSpread() {
+        var skewed = new SyntheticDataGenerator.Settings(1, 1, 100, 1.0, 1, 1, 1, 1);
+        var even = new SyntheticDataGenerator.Settings(1, 1, 100, 0.0, 1, 1, 1, 1);
+        SplittableRandom random = new SplittableRandom(1);
+
+        long total = 0;
+        int max = 0;
+        for (int i = 0; i < 20_000; i++) {
+            int count = SyntheticDataGenerator.trainingCount(skewed, random);
+            total += count;
+            max = Math.max(max, count);
+        }
+
+        assertThat(total / 20_000.0).isBetween(90.0, 110.0);
+        assertThat(max).isGreaterThan(500);
+        assertThat(SyntheticDataGenerator.trainingCount(even, random)).isEqualTo(100);
+    }
+}
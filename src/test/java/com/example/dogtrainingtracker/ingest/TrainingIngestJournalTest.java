@@ -0,0 +1,82 @@
+package com.example.dogtrainingtracker.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrainingIngestJournalTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private static PendingTraining training(String ingestId) {
+        return new PendingTraining(ingestId, 1, "Spår", "Skogen", LocalDate.of(2025, 5, 1), 30,
+                "Tappade spåret", LocalDateTime.of(2025, 5, 1, 18, 0));
+    }
+
+    @Test
+    void uncommittedEntries_shouldBeReplayedAfterRestart(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("journal.ndjson");
+        try (TrainingIngestJournal journal = new TrainingIngestJournal(file, jsonMapper, 100)) {
+            journal.append(training("a"));
+            journal.append(training("b"));
+        }
+        // A crash mid-write leaves a torn last line
+        Files.writeString(file, "{\"ingestId\":\"c\",", StandardOpenOption.APPEND);
+
+        try (TrainingIngestJournal journal = new TrainingIngestJournal(file, jsonMapper, 100)) {
+            assertThat(journal.readAll()).containsExactly(training("a"), training("b"));
+        }
+    }
+
+    @Test
+    void committingEverything_shouldTruncateJournal(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("journal.ndjson");
+        try (TrainingIngestJournal journal = new TrainingIngestJournal(file, jsonMapper, 100)) {
+            journal.append(training("a"));
+            journal.append(training("b"));
+
+            journal.committed(List.of("a"));
+            assertThat(Files.size(file)).isPositive();
+
+            journal.committed(List.of("b"));
+            assertThat(Files.size(file)).isZero();
+        }
+    }
+
+    @Test
+    void fullSegments_shouldBeSealedAndDeletedOnceCommitted(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("journal.ndjson");
+        Path first = dir.resolve("journal.ndjson.1");
+        Path second = dir.resolve("journal.ndjson.2");
+        try (TrainingIngestJournal journal = new TrainingIngestJournal(file, jsonMapper, 2)) {
+            for (String ingestId : List.of("a", "b", "c", "d", "e")) {
+                journal.append(training(ingestId));
+            }
+            assertThat(first).exists();
+            assertThat(second).exists();
+
+            // Commits never wait for the queue to run empty
+            journal.committed(List.of("a", "b", "c"));
+            assertThat(first).doesNotExist();
+            assertThat(second).exists();
+        }
+
+        try (TrainingIngestJournal journal = new TrainingIngestJournal(file, jsonMapper, 2)) {
+            // c shares a segment with d, so it is replayed too and skipped by ingest id
+            assertThat(journal.readAll()).containsExactly(training("c"), training("d"), training("e"));
+
+            journal.committed(List.of("c", "d", "e"));
+            assertThat(second).doesNotExist();
+            assertThat(Files.size(file)).isZero();
+        }
+    }
+}
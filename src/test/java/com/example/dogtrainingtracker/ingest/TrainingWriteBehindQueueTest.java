@@ -0,0 +1,222 @@
+package com.example.dogtrainingtracker.ingest;
+
+import com.example.dogtrainingtracker.dto.DogRequestDTO;
+import com.example.dogtrainingtracker.repository.DogTrainingRepository;
+import com.example.dogtrainingtracker.service.DogService;
+import com.example.dogtrainingtracker.service.TrainingArchiver;
+import com.example.dogtrainingtracker.service.TrainingIngestWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The write-behind queue against the test database, with the real TrainingIngestWriter behind a test hook
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingWriteBehindQueueTest {
+
+    @Autowired
+    private TrainingIngestWriter ingestWriter;
+
+    @Autowired
+    private DogTrainingRepository trainingRepository;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrainingArchiver archiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path dir;
+
+    private final List<TrainingWriteBehindQueue> queues = new ArrayList<>();
+
+    private Integer dogId;
+
+    @BeforeEach
+    void createDog() {
+        dogId = dogService.createDog(new DogRequestDTO("Ingo", "Tax", LocalDate.of(2020, 2, 1)),
+                new UsernamePasswordAuthenticationToken("user", null, List.of())).id();
+    }
+
+    @AfterEach
+    void stopQueues() {
+        queues.forEach(TrainingWriteBehindQueue::stop);
+    }
+
+    @Test
+    void fullQueue_shouldAnswer503AfterOfferTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TrainingWriteBehindQueue queue = start(1, group -> {
+            await(release);
+            return ingestWriter.write(group);
+        });
+
+        PendingTraining first = training();
+        queue.submit(first);
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> queue.submit(training()))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+
+        release.countDown();
+        awaitStored(first.ingestId());
+        assertThat(queue.isPending(first.ingestId())).isFalse();
+    }
+
+    @Test
+    void journaledTrainings_shouldBeReplayedOnStart() throws Exception {
+        PendingTraining left = training();
+        try (TrainingIngestJournal journal = new TrainingIngestJournal(dir.resolve("journal.ndjson"), objectMapper, 100)) {
+            journal.append(left);
+        }
+
+        start(10, ingestWriter::write);
+
+        awaitStored(left.ingestId());
+    }
+
+    @Test
+    void replay_shouldSkipTrainingsThatWereArchivedMeanwhile() throws Exception {
+        // Older than anything other tests write, so only this training is archived
+        PendingTraining old = new PendingTraining(UUID.randomUUID().toString(), dogId, "Spår", "Skogen",
+                LocalDate.of(1980, 1, 1), 20, null, LocalDateTime.of(1980, 1, 1, 9, 0));
+        ingestWriter.write(List.of(old));
+        archiver.archiveBefore(LocalDate.of(1981, 1, 1));
+
+        // The commit was not yet recorded in the journal when the previous run stopped
+        try (TrainingIngestJournal journal = new TrainingIngestJournal(dir.resolve("journal.ndjson"), objectMapper, 100)) {
+            journal.append(old);
+        }
+        TrainingWriteBehindQueue queue = start(10, ingestWriter::write);
+
+        // Committed after the replayed entry by the single writer
+        PendingTraining next = training();
+        queue.submit(next);
+        awaitStored(next.ingestId());
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from dog_training where ingest_id = ?",
+                Long.class, old.ingestId())).isZero();
+        assertThat(queue.hasFailed(old.ingestId())).isFalse();
+    }
+
+    @Test
+    void failedCommits_shouldBeRetriedUntilCommitted() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        TrainingWriteBehindQueue queue = start(10, group -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return ingestWriter.write(group);
+        });
+
+        PendingTraining training = training();
+        queue.submit(training);
+
+        awaitStored(training.ingestId());
+        assertThat(attempts).hasValue(3);
+        assertThat(queue.isPending(training.ingestId())).isFalse();
+    }
+
+    @Test
+    void rejectedTraining_shouldFailAloneWithoutStallingTheQueue() throws Exception {
+        TrainingWriteBehindQueue queue = start(10, ingestWriter::write);
+
+        // Longer than the activity column, so the database refuses it however often it is retried
+        PendingTraining tooLong = new PendingTraining(UUID.randomUUID().toString(), dogId, "x".repeat(200), "Skogen",
+                LocalDate.of(2025, 6, 1), 20, null, LocalDateTime.of(2025, 6, 1, 9, 0));
+        PendingTraining before = training();
+        PendingTraining after = training();
+        queue.submit(before);
+        queue.submit(tooLong);
+        queue.submit(after);
+
+        awaitStored(before.ingestId());
+        awaitStored(after.ingestId());
+        assertThat(queue.hasFailed(tooLong.ingestId())).isTrue();
+        assertThat(queue.isPending(tooLong.ingestId())).isFalse();
+
+        PendingTraining next = training();
+        queue.submit(next);
+        awaitStored(next.ingestId());
+    }
+
+    private TrainingWriteBehindQueue start(int capacity, Function<List<PendingTraining>, List<String>> write) {
+        TrainingWriteBehindQueue queue = new TrainingWriteBehindQueue(new HookedWriter(write), objectMapper, true,
+                dir.resolve("journal.ndjson"), 100, capacity, 10, Duration.ofMillis(5), Duration.ofMillis(200));
+        queue.start();
+        queues.add(queue);
+        return queue;
+    }
+
+    private PendingTraining training() {
+        return new PendingTraining(UUID.randomUUID().toString(), dogId, "Spår", "Skogen", LocalDate.of(2025, 6, 1), 20,
+                null, LocalDateTime.of(2025, 6, 1, 9, 0));
+    }
+
+    // Retries wait a second between attempts
+    private void awaitStored(String ingestId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (trainingRepository.findStoredIngestIds(List.of(ingestId)).isEmpty()) {
+            assertThat(System.nanoTime()).as("training %s stored", ingestId).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Runs the given function instead of the writer; the function calls the real, transactional writer
+    private static final class HookedWriter extends TrainingIngestWriter {
+
+        private final Function<List<PendingTraining>, List<String>> write;
+
+        private HookedWriter(Function<List<PendingTraining>, List<String>> write) {
+            super(null, null, null, null, null);
+            this.write = write;
+        }
+
+        @Override
+        public List<String> write(List<PendingTraining> group) {
+            return write.apply(group);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.dogtrainingtracker.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestQueryStatsTest {
+
+    @Test
+    void inListsOfAnyLengthShareOneShape() {
+        assertThat(RequestQueryStats.shapeOf("select d1_0.id from dog d1_0 where d1_0.id in (?,?,?)"))
+                .isEqualTo(RequestQueryStats.shapeOf("select d1_0.id from dog d1_0\n where d1_0.id in (?)"));
+    }
+
+    @Test
+    void repeatedStatementsAreCountedPerShape() {
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            new QueryCountingStatementInspector(null).inspect("select * from users where id=?");
+            new QueryCountingStatementInspector(null).inspect("select * from users  where id=?");
+            new QueryCountingStatementInspector(null).inspect("select * from dog where id=?");
+
+            assertThat(stats.statements()).isEqualTo(3);
+            assertThat(stats.statementShapes()).containsEntry("select * from users where id=?", 2);
+        } finally {
+            RequestQueryStats.end();
+        }
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotCounted() {
+        assertThat(RequestQueryStats.current()).isNull();
+        assertThat(new QueryCountingStatementInspector(null).inspect("select 1")).isEqualTo("select 1");
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.dogtrainingtracker.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrainingSearchIndexTest {
+
+    private static TrainingSearchIndex sampleIndex(String snapshotFile) {
+        TrainingSearchIndex index = new TrainingSearchIndex(snapshotFile);
+        index.put(1, 10, "Spår", "Skogen", "Tappade spåret vid bäcken");
+        index.put(2, 10, "Agility", "Klubben", "Rev ett hinder, annars bra");
+        index.put(3, 20, "Spår", "Ängen", "Tappade spåret två gånger");
+        return index;
+    }
+
+    @Test
+    void search_shouldMatchAllWordsNewestFirst() {
+        TrainingSearchIndex index = sampleIndex("");
+
+        assertThat(index.search(TrainingSearchIndex.tokenize("tappade SPÅRET"), dogId -> true, 10))
+                .containsExactly(3, 1);
+        assertThat(index.search(TrainingSearchIndex.tokenize("hinder"), dogId -> true, 10))
+                .containsExactly(2);
+        assertThat(index.search(TrainingSearchIndex.tokenize("hinder spåret"), dogId -> true, 10))
+                .isEmpty();
+    }
+
+    @Test
+    void search_shouldOnlyReturnAllowedDogs() {
+        TrainingSearchIndex index = sampleIndex("");
+
+        assertThat(index.search(TrainingSearchIndex.tokenize("spåret"), dogId -> dogId == 10, 10))
+                .containsExactly(1);
+    }
+
+    @Test
+    void removeAll_shouldDropTrainingFromResults() {
+        TrainingSearchIndex index = sampleIndex("");
+        index.removeAll(List.of(3));
+
+        assertThat(index.search(TrainingSearchIndex.tokenize("spåret"), dogId -> true, 10))
+                .containsExactly(1);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void snapshot_shouldRestoreIndex(@TempDir Path dir) {
+        String file = dir.resolve("index.bin").toString();
+        sampleIndex(file).saveSnapshot();
+
+        TrainingSearchIndex restored = new TrainingSearchIndex(file);
+        assertThat(restored.loadSnapshot()).isTrue();
+        assertThat(restored.size()).isEqualTo(3);
+        assertThat(restored.maxTrainingId()).isEqualTo(3);
+        assertThat(restored.search(TrainingSearchIndex.tokenize("tappade"), dogId -> true, 10))
+                .containsExactly(3, 1);
+    }
+}
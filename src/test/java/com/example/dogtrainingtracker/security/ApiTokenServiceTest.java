@@ -0,0 +1,117 @@
+package com.example.dogtrainingtracker.security;
+
+import com.example.dogtrainingtracker.dto.TokenResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiTokenServiceTest {
+
+    private static final CurrentUser USER = new CurrentUser(7, "user", "ROLE_USER", true);
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final TokenDenyList denyList = new TokenDenyList(Duration.ofHours(8));
+    private final ApiTokenService tokenService =
+            new ApiTokenService(denyList, SECRET, Duration.ofMinutes(15), Duration.ofHours(8));
+
+    @Test
+    void accessToken_shouldCarryIdAndRole() {
+        TokenResponseDTO tokens = tokenService.issue(USER);
+
+        Jwt jwt = tokenService.accessTokenDecoder().decode(tokens.accessToken());
+
+        assertThat(ApiTokenService.currentUser(jwt)).isEqualTo(USER);
+        assertThat(tokens.expiresIn()).isEqualTo(900);
+    }
+
+    @Test
+    void refreshToken_shouldNotBeAcceptedAsAccessToken() {
+        TokenResponseDTO tokens = tokenService.issue(USER);
+
+        assertThatThrownBy(() -> tokenService.accessTokenDecoder().decode(tokens.refreshToken()))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void refreshToken_shouldBeSingleUse() {
+        TokenResponseDTO tokens = tokenService.issue(USER);
+
+        assertThat(tokenService.redeemRefreshToken(tokens.refreshToken())).isEqualTo("user");
+        assertThatThrownBy(() -> tokenService.redeemRefreshToken(tokens.refreshToken()))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void concurrentRedeems_shouldSucceedOnlyOnce() throws Exception {
+        TokenResponseDTO tokens = tokenService.issue(USER);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger redeemed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        tokenService.redeemRefreshToken(tokens.refreshToken());
+                        redeemed.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        // Lost the race, as expected
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(redeemed).hasValue(1);
+    }
+
+    @Test
+    void revokedTokens_shouldBeRejected() {
+        TokenResponseDTO tokens = tokenService.issue(USER);
+        Jwt jwt = tokenService.accessTokenDecoder().decode(tokens.accessToken());
+
+        tokenService.revoke(jwt, tokens.refreshToken());
+
+        assertThatThrownBy(() -> tokenService.accessTokenDecoder().decode(tokens.accessToken()))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> tokenService.redeemRefreshToken(tokens.refreshToken()))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void revokeAllFor_shouldRejectEarlierTokensOfThatUserOnly() {
+        TokenResponseDTO userTokens = tokenService.issue(USER);
+        TokenResponseDTO otherTokens = tokenService.issue(new CurrentUser(8, "other", "ROLE_USER", true));
+
+        denyList.revokeAllFor("user");
+
+        assertThatThrownBy(() -> tokenService.accessTokenDecoder().decode(userTokens.accessToken()))
+                .isInstanceOf(JwtException.class);
+        assertThat(tokenService.accessTokenDecoder().decode(otherTokens.accessToken()).getSubject())
+                .isEqualTo("other");
+    }
+
+    @Test
+    void tokensSignedWithAnotherKey_shouldBeRejected() {
+        String otherSecret = Base64.getEncoder().encodeToString("another key of at least 32 bytes".getBytes());
+        ApiTokenService otherService =
+                new ApiTokenService(denyList, otherSecret, Duration.ofMinutes(15), Duration.ofHours(8));
+
+        String forged = otherService.issue(USER).accessToken();
+
+        assertThatThrownBy(() -> tokenService.accessTokenDecoder().decode(forged))
+                .isInstanceOf(JwtException.class);
+    }
+}